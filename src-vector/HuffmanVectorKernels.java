@@ -0,0 +1,140 @@
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Project 3
+ * Author: Nitish Kumar Yarlagadda
+ * HuffmanVectorKernels class
+ */
+final class HuffmanVectorKernels implements HuffmanVectorLoops {
+
+    /**
+     * The HuffmanVectorKernels class holds the loops that use the jdk.incubator.vector module. It is the only class
+     * that refers to the module, so it sits in src-vector instead of src and is compiled on its own against the
+     * classes of src:
+     *     javac --add-modules jdk.incubator.vector -cp out -d out src-vector/*.java
+     * HuffmanVectorSupport creates it by name when the JVM runs with --add-modules jdk.incubator.vector, and uses the
+     * plain loops when the class or the module is missing.
+     *
+     * Both loops work on chars below 256 a vector at a time, which covers nearly all of English text, and handle any
+     * other char one at a time. The vectors use the preferred width of the CPU, so the same code runs on AVX2,
+     * AVX-512 and NEON.
+     */
+
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Short> SHORTS = VectorSpecies.of(short.class, VectorShape.forBitSize(INTS.length() * Short.SIZE));
+    private static final int LANES = INTS.length();
+    private static final int DENSE_SIZE = 256;
+
+    private final ThreadLocal<int[]> laneCounts = ThreadLocal.withInitial(() -> new int[DENSE_SIZE * LANES]); // 0 between calls
+    private final ThreadLocal<int[]> indexes = ThreadLocal.withInitial(() -> new int[LANES]);
+
+    /**
+     * This constructor is responsible to check that the vector shapes used by the loops exist on this CPU. It is
+     * called by HuffmanVectorSupport through reflection.
+     * @throws IllegalStateException -- if the CPU lacks a vector shape the loops need
+     */
+    HuffmanVectorKernels() {
+        if (LANES < 2 || LANES % LONGS.length() != 0 || SHORTS.length() != LANES) {
+            throw new IllegalStateException("the preferred vector shape of this CPU is not supported");
+        }
+    }
+
+    /**
+     * This method is responsible to load the next chars as one int per lane.
+     * @param chars -- It represents the chars
+     * @param i -- It represents the first char to load
+     * @return - returns the chars widened to ints without sign extension
+     */
+    private static IntVector load(char[] chars, int i) {
+        return ((IntVector) ShortVector.fromCharArray(SHORTS, chars, i).convertShape(VectorOperators.S2I, INTS, 0)).and(0xFFFF);
+    }
+
+    /**
+     * This method is responsible to add how often every char occurs in part of an array to the counts. Every lane
+     * counts into its own copy of the table for chars below 256, so the lanes of one gather and scatter never touch
+     * the same counter, and the copies are added up and cleared at the end so the thread can reuse them.
+     * @param chars -- It represents the chars to count
+     * @param from -- It represents the first char to count
+     * @param to -- It represents the char after the last one to count
+     * @param counts -- It represents the counts indexed by char, which are added to
+     */
+    @Override
+    public void countFrequencies(char[] chars, int from, int to, int[] counts) {
+        int[] laneCounts = this.laneCounts.get(); // the count of char c in lane l is at c * LANES + l
+        int[] indexes = this.indexes.get();
+        IntVector lanes = IntVector.zero(INTS).addIndex(1);
+        int i = from;
+        for (int bound = from + SHORTS.loopBound(to - from); i < bound; i += LANES) {
+            IntVector v = load(chars, i);
+            if (v.compare(VectorOperators.LT, DENSE_SIZE).allTrue()) {
+                v.mul(LANES).add(lanes).intoArray(indexes, 0);
+                IntVector.fromArray(INTS, laneCounts, 0, indexes, 0).add(1).intoArray(laneCounts, 0, indexes, 0);
+            } else {
+                for (int j = i; j < i + LANES; j++) {
+                    counts[chars[j]]++;
+                }
+            }
+        }
+        for (; i < to; i++) {
+            counts[chars[i]]++;
+        }
+        for (int c = 0; c < DENSE_SIZE; c++) {
+            int total = 0;
+            for (int l = 0; l < LANES; l++) {
+                total += laneCounts[c * LANES + l];
+                laneCounts[c * LANES + l] = 0;
+            }
+            counts[c] += total;
+        }
+    }
+
+    /**
+     * This method is responsible to look up the codes of the leading chars of part of an array that are below 256 and
+     * have a code, a vector at a time. It stops at the first char that is 256 or more or has no code.
+     * @param chars -- It represents the chars to encode
+     * @param from -- It represents the first char
+     * @param to -- It represents the char after the last one
+     * @param denseCodes -- It represents the code of every char below 256, right aligned
+     * @param denseLengths -- It represents the code length of every char below 256, 0 without a code
+     * @param codes -- It represents the array that receives the codes, starting at index 0
+     * @param lengths -- It represents the array that receives the code lengths, starting at index 0
+     * @return - returns the number of chars whose codes were looked up
+     */
+    @Override
+    public int gatherCodes(char[] chars, int from, int to, long[] denseCodes, int[] denseLengths, long[] codes, int[] lengths) {
+        int[] indexes = this.indexes.get();
+        int i = from;
+        for (int bound = from + SHORTS.loopBound(to - from); i < bound; i += LANES) {
+            IntVector v = load(chars, i);
+            if (!v.compare(VectorOperators.LT, DENSE_SIZE).allTrue()) {
+                break;
+            }
+            v.intoArray(indexes, 0);
+            IntVector found = IntVector.fromArray(INTS, denseLengths, 0, indexes, 0);
+            VectorMask<Integer> missing = found.compare(VectorOperators.EQ, 0);
+            if (missing.anyTrue()) {
+                break;
+            }
+            found.intoArray(lengths, i - from);
+            for (int part = 0; part < LANES; part += LONGS.length()) {
+                LongVector.fromArray(LONGS, denseCodes, 0, indexes, part).intoArray(codes, i - from + part);
+            }
+        }
+        for (; i < to; i++) {
+            char c = chars[i];
+            if (c >= DENSE_SIZE || denseLengths[c] == 0) {
+                break; // the caller deals with this char through the full index
+            }
+            codes[i - from] = denseCodes[c];
+            lengths[i - from] = denseLengths[c];
+        }
+        return i - from;
+    }
+}
@@ -0,0 +1,437 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Project 3
+ * Author: Nitish Kumar Yarlagadda
+ * AdaptiveHuffmanCoder class
+ */
+public class AdaptiveHuffmanCoder {
+
+    /**
+     * The AdaptiveHuffmanCoder class implements one pass adaptive Huffman coding with the FGK algorithm. Instead of a
+     * codebook that has to be known up front, the tree starts with a single NYT (not yet transmitted) leaf and is
+     * updated after every letter, so the codes follow the letter counts of the text seen so far. A letter seen for the
+     * first time is written as the code of the NYT leaf followed by its 16 bits. The decoder makes exactly the same
+     * updates after every letter it reads, so no codebook is ever stored with the bits.
+     *
+     * The tree is kept flat like FlatHuffmanCodeTree, with parent links and weights that HuffmanNode does not have.
+     * Every node also has an order number, with the root highest, and the tree keeps the sibling property: ordered by
+     * number, the weights never decrease. Before a weight is increased the node is swapped with the highest numbered
+     * node of the same weight, which is what keeps the property true. A coder holds the state of one stream, so use
+     * one instance for encoding and a fresh one for decoding it.
+     */
+
+    public static final int ALPHABET_SIZE = 65536;
+    private static final int MAX_NUMBER = 2 * ALPHABET_SIZE; // room for every letter, its internal node and the NYT leaf
+    private static final int NONE = -1;
+
+    private int[] parent;
+    private int[] zero; // zero[node] and one[node] are the children, NONE for a leaf
+    private int[] one;
+    private long[] weight;
+    private char[] symbol;
+    private int[] number; // number[node] is the order number of the node
+    private final int[] byNumber = new int[MAX_NUMBER + 1]; // byNumber[n] is the node with order number n
+    private final int[] leafOf = new int[ALPHABET_SIZE]; // leafOf[c] is the leaf of letter c, NONE if not seen yet
+    private int count;
+    private int root;
+    private int nyt;
+    private int[] path = new int[64]; // reused by encode to collect the bits of a code from leaf to root
+
+    /**
+     * This constructor is a 0 argument constructor that is responsible to create a coder that has not seen any letter.
+     */
+    public AdaptiveHuffmanCoder() {
+        parent = new int[64];
+        zero = new int[64];
+        one = new int[64];
+        weight = new long[64];
+        symbol = new char[64];
+        number = new int[64];
+        Arrays.fill(leafOf, NONE);
+        root = newNode(NONE, MAX_NUMBER);
+        nyt = root;
+    }
+
+    /**
+     * This method is responsible to encode a piece of text into packed bits, continuing from the letters this coder
+     * has already encoded.
+     * @param s -- It represents the text that needs to be encoded
+     * @return - returns the encoded bits
+     */
+    public PackedBinarySequence encode(CharSequence s) {
+        PackedBitWriter out = new PackedBitWriter((long) s.length() * 8);
+        encode(s, out);
+        return out.toSequence();
+    }
+
+    /**
+     * This method is responsible to encode a piece of text and append the bits to a writer, updating the tree after
+     * every letter.
+     * @param s -- It represents the text that needs to be encoded
+     * @param out -- It represents the writer that receives the bits
+     */
+    public void encode(CharSequence s, PackedBitWriter out) {
+        for (int i = 0; i < s.length(); i++) {
+            encode(s.charAt(i), out);
+        }
+    }
+
+    /**
+     * This method is responsible to encode every char of a reader to a stream in one pass, in the layout described in
+     * PackedBinarySequence. Memory use does not depend on the size of the input. Neither one is closed.
+     * @param in -- It represents the text to encode
+     * @param out -- It represents the stream that receives the encoded bytes
+     * @return - returns the number of encoded bits, not counting padding and the final length byte
+     * @throws IOException -- if reading or writing fails
+     */
+    public long encode(Reader in, OutputStream out) throws IOException {
+        char[] chunk = new char[1 << 16];
+        PackedBitWriter writer = new PackedBitWriter((long) chunk.length * 8);
+        int read;
+        while ((read = in.read(chunk, 0, chunk.length)) != -1) {
+            for (int i = 0; i < read; i++) {
+                encode(chunk[i], writer);
+            }
+            writer.flushTo(out);
+        }
+        writer.finishTo(out);
+        out.flush();
+        return writer.size();
+    }
+
+    /**
+     * This method is responsible to write the code of one letter and then update the tree for it.
+     * @param c -- It represents the letter
+     * @param out -- It represents the writer that receives the bits
+     */
+    private void encode(char c, PackedBitWriter out) {
+        int leaf = leafOf[c];
+        writePath(leaf == NONE ? nyt : leaf, out);
+        if (leaf == NONE) {
+            out.write(c, 16); // the first time a letter is seen its bits follow the NYT code
+        }
+        update(c);
+    }
+
+    /**
+     * This method is responsible to write the code of a node, which is the path from the root down to it.
+     * @param node -- It represents the node
+     * @param out -- It represents the writer that receives the bits
+     */
+    private void writePath(int node, PackedBitWriter out) {
+        int depth = 0;
+        for (int child = node; child != root; child = parent[child]) {
+            if (depth == path.length) {
+                path = Arrays.copyOf(path, depth * 2);
+            }
+            path[depth++] = one[parent[child]] == child ? 1 : 0;
+        }
+        long bits = 0;
+        int length = 0;
+        for (int d = depth - 1; d >= 0; d--) { // the path was collected from the bottom up
+            bits = bits << 1 | path[d];
+            if (++length == 64) {
+                out.write(bits, 64);
+                bits = 0;
+                length = 0;
+            }
+        }
+        out.write(bits, length);
+    }
+
+    /**
+     * This method is responsible to decode bits that were encoded by a fresh coder, updating the tree after every
+     * letter in the same way the encoder did. Bits of an unfinished code at the end are ignored.
+     * @param bits -- It represents the bits that need to be decoded
+     * @return - returns the decoded string
+     */
+    public String decode(HuffmanTableDecoder.BitSource bits) {
+        StringBuilder outputString = new StringBuilder();
+        long size = bits.size();
+        long position = 0;
+        while (true) {
+            int node = root;
+            while (zero[node] != NONE && position < size) {
+                node = (bits.peek(position++) < 0) ? one[node] : zero[node]; // the leading bit is the sign bit
+            }
+            if (zero[node] != NONE) {
+                break;
+            }
+            char c;
+            if (node == nyt) {
+                if (position + 16 > size) {
+                    break;
+                }
+                c = (char) (bits.peek(position) >>> 48);
+                position += 16;
+            } else {
+                c = symbol[node];
+            }
+            outputString.append(c);
+            update(c);
+        }
+        return outputString.toString();
+    }
+
+    /**
+     * This method is responsible to decode a stream in one pass and write the text to a writer, in blocks so memory use
+     * does not depend on the size of the input. Neither one is closed.
+     * @param in -- It represents the encoded bytes
+     * @param out -- It represents the writer that receives the decoded text
+     * @return - returns the number of chars written
+     * @throws IOException -- if reading or writing fails, or the input does not end with a valid padding count
+     */
+    public long decode(InputStream in, Writer out) throws IOException {
+        StreamBits bits = new StreamBits(in);
+        char[] block = new char[1 << 16];
+        int used = 0;
+        long written = 0;
+        while (true) {
+            int node = root;
+            while (zero[node] != NONE && bits.hasNext()) {
+                node = bits.next() ? one[node] : zero[node];
+            }
+            if (zero[node] != NONE) {
+                break;
+            }
+            char c;
+            if (node == nyt) {
+                int raw = 0;
+                int read = 0;
+                for (; read < 16 && bits.hasNext(); read++) {
+                    raw = raw << 1 | (bits.next() ? 1 : 0);
+                }
+                if (read < 16) {
+                    break;
+                }
+                c = (char) raw;
+            } else {
+                c = symbol[node];
+            }
+            block[used++] = c;
+            if (used == block.length) {
+                out.write(block, 0, used);
+                written += used;
+                used = 0;
+            }
+            update(c);
+        }
+        out.write(block, 0, used);
+        out.flush();
+        return written + used;
+    }
+
+    /**
+     * This method is responsible to return the number of different letters seen so far.
+     * @return - returns the number of letters
+     */
+    public int size() {
+        return (count - 1) / 2;
+    }
+
+    /**
+     * This method is responsible to return how many times a letter was seen so far.
+     * @param c -- It represents the letter
+     * @return - returns the count of the letter, 0 if it was not seen
+     */
+    public long getWeight(char c) {
+        return leafOf[c] == NONE ? 0 : weight[leafOf[c]];
+    }
+
+    /**
+     * This method is responsible to return the length of the code a letter currently has.
+     * @param c -- It represents the letter
+     * @return - returns the code length in bits, 0 if the letter was not seen
+     */
+    public int getCodeLength(char c) {
+        int depth = 0;
+        if (leafOf[c] != NONE) {
+            for (int node = leafOf[c]; node != root; node = parent[node]) {
+                depth++;
+            }
+        }
+        return depth;
+    }
+
+
+
+    // The below code represents the FGK update and the flat node storage
+
+    /**
+     * This method is responsible to count one more occurrence of a letter. A new letter splits the NYT leaf into a new
+     * NYT leaf and a leaf for the letter. Then, from the leaf up to the root, every node is swapped with the leader of
+     * its block, the highest numbered node of the same weight, before its weight is increased.
+     * @param c -- It represents the letter
+     */
+    private void update(char c) {
+        int node = leafOf[c];
+        if (node == NONE) {
+            int split = nyt;
+            int splitNumber = number[split];
+            nyt = newNode(split, splitNumber - 2);
+            node = newNode(split, splitNumber - 1);
+            symbol[node] = c;
+            leafOf[c] = node;
+            zero[split] = nyt;
+            one[split] = node;
+        }
+        while (node != NONE) {
+            int leader = node;
+            long w = weight[node];
+            for (int n = number[node] + 1; n <= MAX_NUMBER && byNumber[n] != NONE && weight[byNumber[n]] == w; n++) {
+                leader = byNumber[n];
+            }
+            if (leader != node && leader != parent[node]) {
+                swap(node, leader);
+            }
+            weight[node]++;
+            node = parent[node];
+        }
+    }
+
+    /**
+     * This method is responsible to exchange the places of two nodes, neither of which is above the other, together
+     * with their subtrees and their order numbers.
+     * @param a -- It represents the first node
+     * @param b -- It represents the second node
+     */
+    private void swap(int a, int b) {
+        int parentA = parent[a];
+        int parentB = parent[b];
+        boolean aIsOne = one[parentA] == a;
+        boolean bIsOne = one[parentB] == b;
+        if (aIsOne) {
+            one[parentA] = b;
+        } else {
+            zero[parentA] = b;
+        }
+        if (bIsOne) {
+            one[parentB] = a;
+        } else {
+            zero[parentB] = a;
+        }
+        parent[a] = parentB;
+        parent[b] = parentA;
+        int numberA = number[a];
+        number[a] = number[b];
+        number[b] = numberA;
+        byNumber[number[a]] = a;
+        byNumber[number[b]] = b;
+    }
+
+    /**
+     * This method is responsible to add a leaf with weight 0.
+     * @param parentNode -- It represents the parent of the leaf, NONE for the root
+     * @param order -- It represents the order number of the leaf
+     * @return - returns the new node
+     */
+    private int newNode(int parentNode, int order) {
+        if (count == parent.length) {
+            int size = count * 2;
+            parent = Arrays.copyOf(parent, size);
+            zero = Arrays.copyOf(zero, size);
+            one = Arrays.copyOf(one, size);
+            weight = Arrays.copyOf(weight, size);
+            symbol = Arrays.copyOf(symbol, size);
+            number = Arrays.copyOf(number, size);
+        }
+        if (count == 0) {
+            Arrays.fill(byNumber, NONE);
+        }
+        int node = count++;
+        parent[node] = parentNode;
+        zero[node] = NONE;
+        one[node] = NONE;
+        number[node] = order;
+        byNumber[order] = node;
+        return node;
+    }
+
+
+
+    // The below code represents a bit by bit reader over a stream in the layout described in PackedBinarySequence
+
+    /**
+     * This class represents the bits of a stream, holding back the last two bytes until the end is reached since they
+     * are the final (padded) byte and the padding count.
+     */
+    private static class StreamBits {
+        private final InputStream in;
+        private final byte[] buffer = new byte[1 << 16];
+        private int filled;
+        private int next; // next byte of the buffer to take bits from
+        private int bit = 8; // bits of the current byte already handed out, 8 means a new byte is needed
+        private int current;
+        private int lastBits = 8; // number of real bits in the current byte, less than 8 for the final byte
+        private boolean ended; // the stream has no more bytes
+        private boolean finished; // the final byte has been taken
+
+        /**
+         * This constructor is responsible to wrap a stream.
+         * @param in -- It represents the encoded bytes
+         */
+        private StreamBits(InputStream in) {
+            this.in = in;
+        }
+
+        /**
+         * This method is responsible to check if another real bit follows, reading more of the stream when needed.
+         * @return - returns true if there is another bit otherwise false
+         * @throws IOException -- if reading fails, or the input does not end with a valid padding count
+         */
+        private boolean hasNext() throws IOException {
+            if (bit < lastBits) {
+                return true;
+            }
+            if (finished) {
+                return false;
+            }
+            while (!ended && filled - next < 3) {
+                System.arraycopy(buffer, next, buffer, 0, filled - next);
+                filled -= next;
+                next = 0;
+                int read = in.read(buffer, filled, buffer.length - filled);
+                if (read == -1) {
+                    ended = true;
+                } else {
+                    filled += read;
+                }
+            }
+            int left = filled - next;
+            if (left >= 3) {
+                current = buffer[next++] & 0xFF;
+                bit = 0;
+                return true;
+            }
+            finished = true;
+            if (left == 0) {
+                throw new IOException("the input is empty, it should at least hold the padding count");
+            }
+            int padding = buffer[filled - 1] & 0xFF;
+            if (padding > 7 || (left == 1 && padding != 0)) {
+                throw new IOException("the input does not end with a valid padding count");
+            }
+            if (left == 1) {
+                return false;
+            }
+            current = buffer[next] & 0xFF; // the final byte, only its first 8 - padding bits are real
+            bit = 0;
+            lastBits = 8 - padding;
+            return lastBits > 0;
+        }
+
+        /**
+         * This method is responsible to return the next bit, after hasNext returned true.
+         * @return - returns true for a 1 bit otherwise false
+         */
+        private boolean next() {
+            return (current >>> (7 - bit++) & 1) == 1;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+public class AdaptiveHuffmanCoderTester {
+    public static void main(String[] args) throws IOException {
+        String original = "Once upon a midnight dreary, while I pondered, weak and weary,\n" +
+                "Over many a quaint and curious volume of forgotten lore—\n" +
+                "            Only this and nothing more.\"";
+
+        /////////////////////////////////////////////////
+        // Test 1: the first letter is the NYT code (empty at the start) and its 16 bits, 'a' then has the code 1
+        // and 'b' is the NYT code 0 and its 16 bits
+        /////////////////////////////////////////////////
+        AdaptiveHuffmanCoder encoder = new AdaptiveHuffmanCoder();
+        PackedBinarySequence bits = encoder.encode("aab");
+        System.out.println(bits);                                      // 0000000001100001100000000001100010
+        System.out.println(encoder.size());                            // 2
+        System.out.println(encoder.getWeight('a'));                    // 2
+        System.out.println(new AdaptiveHuffmanCoder().decode(bits));   // aab
+
+        /////////////////////////////////////////////////
+        // Test 2: a round trip of a longer text, and frequent letters end up with short codes
+        /////////////////////////////////////////////////
+        AdaptiveHuffmanCoder poem = new AdaptiveHuffmanCoder();
+        PackedBinarySequence encoded = poem.encode(original);
+        System.out.println(new AdaptiveHuffmanCoder().decode(encoded).equals(original));   // true
+        System.out.println(poem.getCodeLength(' ') < poem.getCodeLength('y'));            // true
+        System.out.println(encoded.size() < original.length() * 8L);  // true
+
+        /////////////////////////////////////////////////
+        // Test 3: one pass streaming, in both directions
+        /////////////////////////////////////////////////
+        StringBuilder big = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            big.append(original).append(i);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new AdaptiveHuffmanCoder().encode(new StringReader(big.toString()), out);
+        StringWriter text = new StringWriter();
+        long written = new AdaptiveHuffmanCoder().decode(new ByteArrayInputStream(out.toByteArray()), text);
+        System.out.println(written == big.length() && text.toString().equals(big.toString()));   // true
+
+        /////////////////////////////////////////////////
+        // Test 4: an empty stream is rejected, an empty text is not
+        /////////////////////////////////////////////////
+        ByteArrayOutputStream empty = new ByteArrayOutputStream();
+        new AdaptiveHuffmanCoder().encode(new StringReader(""), empty);
+        System.out.println(new AdaptiveHuffmanCoder().decode(new ByteArrayInputStream(empty.toByteArray()), new StringWriter()));   // 0
+        try {
+            new AdaptiveHuffmanCoder().decode(new ByteArrayInputStream(new byte[0]), new StringWriter());
+            System.out.println("decoded");
+        } catch (IOException e) {
+            System.out.println("rejected");                            // rejected
+        }
+    }
+}
+/*
+0000000001100001100000000001100010
+2
+2
+aab
+true
+true
+true
+true
+0
+rejected
+ */
@@ -0,0 +1,278 @@
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Project 3
+ * Author: Nitish Kumar Yarlagadda
+ * ByteHuffmanCode class
+ */
+public final class ByteHuffmanCode {
+
+    /**
+     * The ByteHuffmanCode class is the byte version of the codebook, tree, encoder and decoder together. Its letters
+     * are the 256 byte values, so binary data and text that is already UTF-8 can be compressed straight from a byte[]
+     * or a ByteBuffer without being turned into a String first. Direct and memory mapped buffers work the same as heap
+     * ones, which lets the bytes go from a channel to the coder and back without copies.
+     *
+     * Codes are canonical and at most MAX_CODE_LENGTH bits long, so one lookup in a 2^MAX_CODE_LENGTH entry table
+     * decodes any letter. Encoded bytes use the same layout as PackedBinarySequence without its trailing padding byte:
+     * bits first to last, most significant bit first in every byte, and the last byte padded with 0 bits. The number of
+     * bytes is not stored, the caller keeps it and passes it back to decode. Unlike the char coders, a byte without a
+     * code is an error instead of being skipped, since dropping bytes breaks binary data.
+     *
+     * Every field is final and never changes after the constructor, so one code can be shared by threads.
+     */
+
+    public static final int ALPHABET_SIZE = 256;
+    public static final int MAX_CODE_LENGTH = 11;
+    private static final int TABLE_MASK = (1 << MAX_CODE_LENGTH) - 1;
+
+    private final CanonicalHuffmanCode code;
+    private final int[] codes = new int[ALPHABET_SIZE]; // codes[b] is the code of byte value b, right aligned
+    private final int[] lengths = new int[ALPHABET_SIZE]; // lengths[b] is the length of codes[b], 0 without a code
+    private final int[] table = new int[1 << MAX_CODE_LENGTH]; // (byte << 8 | length) for every MAX_CODE_LENGTH bit pattern
+
+    /**
+     * This constructor is responsible to compile a canonical code whose letters are byte values.
+     * @param code -- It represents the code, with letters below 256 and codes of at most MAX_CODE_LENGTH bits
+     */
+    public ByteHuffmanCode(CanonicalHuffmanCode code) {
+        for (int i = 0; i < code.size(); i++) {
+            int symbol = code.getSymbol(i);
+            int length = code.getLength(i);
+            if (symbol >= ALPHABET_SIZE) {
+                throw new IllegalArgumentException("letter " + symbol + " is not a byte value");
+            }
+            if (length > MAX_CODE_LENGTH) {
+                throw new IllegalArgumentException("code length " + length + " for byte " + symbol + " is longer than " + MAX_CODE_LENGTH);
+            }
+            codes[symbol] = (int) code.getCode(i);
+            lengths[symbol] = length;
+            int first = codes[symbol] << (MAX_CODE_LENGTH - length);
+            // every pattern that starts with this code decodes to the same byte
+            Arrays.fill(table, first, first + (1 << (MAX_CODE_LENGTH - length)), symbol << 8 | length);
+        }
+        this.code = code;
+    }
+
+    /**
+     * This method is responsible to build the best code for the given byte counts.
+     * @param frequencies -- It represents how often every byte value occurs, indexed by the unsigned value
+     * @return - returns the optimal code with codes of at most MAX_CODE_LENGTH bits
+     */
+    public static ByteHuffmanCode of(long[] frequencies) {
+        if (frequencies.length != ALPHABET_SIZE) {
+            throw new IllegalArgumentException("there must be " + ALPHABET_SIZE + " counts: " + frequencies.length);
+        }
+        return new ByteHuffmanCode(HuffmanCodeBookBuilder.buildCode(frequencies, MAX_CODE_LENGTH));
+    }
+
+    /**
+     * This method is responsible to build the best code for some data.
+     * @param data -- It represents the bytes to count
+     * @return - returns the optimal code for the data
+     */
+    public static ByteHuffmanCode of(byte[] data) {
+        return of(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * This method is responsible to build the best code for the remaining bytes of a buffer. The position of the
+     * buffer is not changed.
+     * @param data -- It represents the bytes to count
+     * @return - returns the optimal code for the data
+     */
+    public static ByteHuffmanCode of(ByteBuffer data) {
+        return of(countFrequencies(data));
+    }
+
+    /**
+     * This method is responsible to count how often every byte value occurs in the remaining bytes of a buffer. The
+     * position of the buffer is not changed.
+     * @param data -- It represents the bytes to count
+     * @return - returns the counts, indexed by the unsigned byte value
+     */
+    public static long[] countFrequencies(ByteBuffer data) {
+        long[] counts = new long[ALPHABET_SIZE];
+        for (int i = data.position(); i < data.limit(); i++) {
+            counts[data.get(i) & 0xFF]++;
+        }
+        return counts;
+    }
+
+    /**
+     * This method is responsible to return the canonical code this code was compiled from, which can be stored with
+     * CanonicalHuffmanCode.writeTo.
+     * @return - returns the canonical code
+     */
+    public CanonicalHuffmanCode toCanonicalCode() {
+        return code;
+    }
+
+    /**
+     * This method is responsible to check if a byte value has a code.
+     * @param b -- It represents the byte value, as a byte or its unsigned value
+     * @return - returns true if the byte has a code otherwise false
+     */
+    public boolean contains(int b) {
+        return lengths[b & 0xFF] > 0;
+    }
+
+    /**
+     * This method is responsible to return the bits of the code for a byte value.
+     * @param b -- It represents the byte value, as a byte or its unsigned value
+     * @return - returns the code, right aligned, or 0 if the byte has no code
+     */
+    public int getCode(int b) {
+        return codes[b & 0xFF];
+    }
+
+    /**
+     * This method is responsible to return the length of the code for a byte value.
+     * @param b -- It represents the byte value, as a byte or its unsigned value
+     * @return - returns the code length in bits, or 0 if the byte has no code
+     */
+    public int getCodeLength(int b) {
+        return lengths[b & 0xFF];
+    }
+
+    /**
+     * This method is responsible to work out how many bits the remaining bytes of a buffer encode to, without encoding
+     * them. The position of the buffer is not changed.
+     * @param src -- It represents the bytes
+     * @return - returns the number of bits
+     */
+    public long encodedBits(ByteBuffer src) {
+        long bits = 0;
+        for (int i = src.position(); i < src.limit(); i++) {
+            int length = lengths[src.get(i) & 0xFF];
+            if (length == 0) {
+                throw new IllegalArgumentException("byte " + (src.get(i) & 0xFF) + " at " + i + " has no code");
+            }
+            bits += length;
+        }
+        return bits;
+    }
+
+    /**
+     * This method is responsible to encode a byte array.
+     * @param data -- It represents the bytes that need to be encoded
+     * @return - returns the encoded bytes, exactly as many as the bits need
+     */
+    public byte[] encode(byte[] data) {
+        ByteBuffer src = ByteBuffer.wrap(data);
+        ByteBuffer dst = ByteBuffer.allocate((int) ((encodedBits(src) + 7) / 8));
+        encode(src, dst);
+        return dst.array();
+    }
+
+    /**
+     * This method is responsible to encode the remaining bytes of a buffer into a new direct buffer, which can be
+     * handed to a channel without another copy.
+     * @param src -- It represents the bytes that need to be encoded, which are all used up
+     * @return - returns the encoded bytes, ready to be read
+     */
+    public ByteBuffer encode(ByteBuffer src) {
+        ByteBuffer dst = ByteBuffer.allocateDirect((int) ((encodedBits(src) + 7) / 8));
+        encode(src, dst);
+        return dst.flip();
+    }
+
+    /**
+     * This method is responsible to encode the remaining bytes of one buffer into another. On success the position of
+     * src moves to its limit and the position of dst moves past the encoded bytes. If a byte has no code or dst is
+     * too small neither position changes.
+     * @param src -- It represents the bytes that need to be encoded
+     * @param dst -- It represents the buffer that receives the encoded bytes
+     * @return - returns the number of bits written, the last byte being padded with 0 bits
+     * @throws BufferOverflowException -- if dst has no room for all the encoded bytes
+     */
+    public long encode(ByteBuffer src, ByteBuffer dst) {
+        HuffmanMetrics metrics = HuffmanMetrics.active(); // null unless metrics were enabled
+        long started = metrics == null ? 0 : System.nanoTime();
+        int in = src.position();
+        int out = dst.position();
+        long window = 0; // the bits not written yet are the lowest count bits
+        int count = 0;
+        long bits = 0;
+        for (; in < src.limit(); in++) {
+            int b = src.get(in) & 0xFF;
+            int length = lengths[b];
+            if (length == 0) {
+                throw new IllegalArgumentException("byte " + b + " at " + in + " has no code");
+            }
+            window = window << length | codes[b];
+            count += length;
+            bits += length;
+            while (count >= 8) {
+                if (out == dst.limit()) {
+                    throw new BufferOverflowException();
+                }
+                count -= 8;
+                dst.put(out++, (byte) (window >>> count));
+            }
+        }
+        if (count > 0) {
+            if (out == dst.limit()) {
+                throw new BufferOverflowException();
+            }
+            dst.put(out++, (byte) (window << (8 - count))); // the last byte is padded with 0 bits
+        }
+        if (metrics != null) {
+            metrics.recordEncode(src.remaining(), 0, bits, System.nanoTime() - started);
+        }
+        src.position(in);
+        dst.position(out);
+        return bits;
+    }
+
+    /**
+     * This method is responsible to decode a byte array.
+     * @param encoded -- It represents the encoded bytes
+     * @param length -- It represents the number of bytes that were encoded
+     * @return - returns the decoded bytes
+     */
+    public byte[] decode(byte[] encoded, int length) {
+        ByteBuffer dst = ByteBuffer.allocate(length);
+        decode(ByteBuffer.wrap(encoded), dst);
+        return dst.array();
+    }
+
+    /**
+     * This method is responsible to decode bytes from one buffer until another is full. The position of src moves past
+     * every byte that held a decoded bit and the position of dst moves to its limit. If the encoded bytes end early or
+     * hold a pattern that is not a code neither position changes.
+     * @param src -- It represents the encoded bytes
+     * @param dst -- It represents the buffer that receives the decoded bytes, as many as it has room for
+     */
+    public void decode(ByteBuffer src, ByteBuffer dst) {
+        HuffmanMetrics metrics = HuffmanMetrics.active(); // null unless metrics were enabled
+        long started = metrics == null ? 0 : System.nanoTime();
+        int in = src.position();
+        int out = dst.position();
+        long window = 0; // the bits not decoded yet are the lowest count bits
+        int count = 0;
+        long bits = 0;
+        while (out < dst.limit()) {
+            while (count <= 56 && in < src.limit()) {
+                window = window << 8 | (src.get(in++) & 0xFF); // refilling a byte at a time keeps 57 or more bits ready
+                count += 8;
+            }
+            int pattern = count >= MAX_CODE_LENGTH ? (int) (window >>> (count - MAX_CODE_LENGTH)) & TABLE_MASK : (int) (window << (MAX_CODE_LENGTH - count)) & TABLE_MASK;
+            int entry = table[pattern];
+            int length = entry & 0xFF;
+            if (length == 0 || length > count) {
+                throw new IllegalArgumentException("the encoded bytes end early or hold bits that are not a code after " + (out - dst.position()) + " bytes");
+            }
+            dst.put(out++, (byte) (entry >>> 8));
+            count -= length;
+            bits += length;
+        }
+        if (metrics != null) {
+            metrics.recordDecode(bits, dst.remaining(), System.nanoTime() - started);
+        }
+        src.position(in - count / 8); // whole bytes that were read ahead are given back
+        dst.position(out);
+    }
+}
@@ -0,0 +1,70 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class ByteHuffmanCodeTester {
+    public static void main(String[] args) {
+        String original = "Once upon a midnight dreary, while I pondered, weak and weary,\n" +
+                "Over many a quaint and curious volume of forgotten lore—\n" +
+                "            Only this and nothing more.\"";
+        byte[] utf8 = original.getBytes(StandardCharsets.UTF_8);
+
+        /////////////////////////////////////////////////
+        // Test 1: UTF-8 bytes are compressed and come back without going through a String
+        /////////////////////////////////////////////////
+        ByteHuffmanCode code = ByteHuffmanCode.of(utf8);
+        byte[] encoded = code.encode(utf8);
+        System.out.println(utf8.length);                               // 162
+        System.out.println(encoded.length);                            // 88
+        System.out.println(Arrays.equals(code.decode(encoded, utf8.length), utf8));   // true
+        System.out.println(code.getCodeLength(0x80) > 0);              // true, a byte of the dash
+        System.out.println(code.contains('Z'));                        // false
+
+        /////////////////////////////////////////////////
+        // Test 2: direct buffers in and out
+        /////////////////////////////////////////////////
+        ByteBuffer src = ByteBuffer.allocateDirect(utf8.length).put(utf8).flip();
+        ByteBuffer packed = code.encode(src);
+        System.out.println(packed.isDirect() + " " + src.remaining() + " " + packed.remaining());   // true 0 88
+        ByteBuffer decoded = ByteBuffer.allocateDirect(utf8.length);
+        code.decode(packed, decoded);
+        System.out.println(packed.remaining() + " " + decoded.flip().equals(ByteBuffer.wrap(utf8)));   // 0 true
+
+        /////////////////////////////////////////////////
+        // Test 3: the code can be stored and loaded as a canonical code
+        /////////////////////////////////////////////////
+        ByteHuffmanCode loaded = new ByteHuffmanCode(code.toCanonicalCode());
+        System.out.println(Arrays.equals(loaded.encode(utf8), encoded));   // true
+        System.out.println(code.toCanonicalCode().getMaxLength() <= ByteHuffmanCode.MAX_CODE_LENGTH);   // true
+
+        /////////////////////////////////////////////////
+        // Test 4: bytes without a code and truncated input are rejected
+        /////////////////////////////////////////////////
+        ByteBuffer zed = ByteBuffer.wrap("Zed".getBytes(StandardCharsets.UTF_8));
+        try {
+            code.encode(zed, ByteBuffer.allocate(16));
+            System.out.println("encoded");
+        } catch (IllegalArgumentException e) {
+            System.out.println("rejected " + zed.position());          // rejected 0
+        }
+        try {
+            code.decode(Arrays.copyOf(encoded, 10), utf8.length);
+            System.out.println("decoded");
+        } catch (IllegalArgumentException e) {
+            System.out.println("rejected");                            // rejected
+        }
+    }
+}
+/*
+162
+88
+true
+true
+false
+true 0 88
+0 true
+true
+true
+rejected 0
+rejected
+ */
@@ -0,0 +1,414 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Project 3
+ * Author: Nitish Kumar Yarlagadda
+ * CanonicalHuffmanCode class
+ */
+public class CanonicalHuffmanCode {
+
+    /**
+     * The CanonicalHuffmanCode class represents a prefix code that is fully described by the code length of every
+     * letter. Letters are ordered by code length and then by char value, and the codes are handed out counting up in
+     * that order, so two codes built from the same lengths are always identical. The code can be turned into a
+     * HuffmanCodeBook, a HuffmanCodeTree, or the compiled encoder and decoder without going through either of them.
+     *
+     * Since the lengths are all there is to a canonical code, they are also all that is stored. The stored layout is
+     *     int MAGIC, byte VERSION, byte longest length, then for every length from 1 to the longest one:
+     *     the number of letters with that length, followed by those letters in increasing order, each one stored as
+     *     the difference to the previous letter (the first one as itself).
+     * Every number after the first two bytes is a varint, 7 bits per byte with the high bit set on all but the last
+     * byte, so an alphabet of nearby letters takes about one byte per letter.
+     */
+
+    public static final int MAX_CODE_LENGTH = 64;
+    public static final int MAGIC = 0x48554643; // "HUFC"
+    public static final int VERSION = 1;
+
+    private final char[] symbols; // letters in canonical order
+    private final int[] lengths; // lengths[i] is the code length of symbols[i]
+    private final long[] codes; // codes[i] is the code of symbols[i], right aligned
+
+    /**
+     * This constructor is responsible to create the canonical code for letters with the given code lengths.
+     * @param symbols -- It represents the letters, each one at most once
+     * @param lengths -- It represents the code length of every letter, between 1 and 64
+     */
+    public CanonicalHuffmanCode(char[] symbols, int[] lengths) {
+        if (symbols.length != lengths.length) {
+            throw new IllegalArgumentException("symbols and lengths must have the same length");
+        }
+        if (symbols.length == 0) {
+            throw new IllegalArgumentException("a code needs at least one letter");
+        }
+        long[] order = new long[symbols.length]; // (length << 16 | letter) sorts straight into canonical order
+        for (int i = 0; i < symbols.length; i++) {
+            if (lengths[i] < 1 || lengths[i] > MAX_CODE_LENGTH) {
+                throw new IllegalArgumentException("code length " + lengths[i] + " for '" + symbols[i] + "' is not between 1 and " + MAX_CODE_LENGTH);
+            }
+            order[i] = (long) lengths[i] << 16 | symbols[i];
+        }
+        Arrays.sort(order);
+        checkKraft(order);
+        this.symbols = new char[order.length];
+        this.lengths = new int[order.length];
+        this.codes = new long[order.length];
+        long code = 0;
+        for (int i = 0; i < order.length; i++) {
+            this.symbols[i] = (char) order[i];
+            this.lengths[i] = (int) (order[i] >>> 16);
+            if (i > 0) {
+                code = (code + 1) << (this.lengths[i] - this.lengths[i - 1]); // next code, padded out to the new length
+            }
+            this.codes[i] = code;
+        }
+        char[] sorted = this.symbols.clone();
+        Arrays.sort(sorted);
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] == sorted[i - 1]) {
+                throw new IllegalArgumentException("letter '" + sorted[i] + "' appears more than once");
+            }
+        }
+    }
+
+    /**
+     * This method is responsible to create the canonical code of a codebook whose codes already are canonical, such as
+     * one made by toCodeBook, so that storing its lengths keeps every code. A codebook with other codes is rejected
+     * since text encoded with it could not be decoded by the canonical code; canonicalize re-codes such a codebook.
+     * @param codebook -- It represents the codebook
+     * @return - returns the canonical code with exactly the codes of the codebook
+     * @throws IllegalArgumentException -- if a code of the codebook differs from the canonical code for its length
+     */
+    public static CanonicalHuffmanCode of(HuffmanCodeBook codebook) {
+        CanonicalHuffmanCode code = canonicalize(codebook);
+        for (int i = 0; i < code.symbols.length; i++) {
+            long bits = 0;
+            for (boolean eachBit : codebook.getSequence(code.symbols[i])) {
+                bits = bits << 1 | (eachBit ? 1 : 0);
+            }
+            if (bits != code.codes[i]) {
+                throw new IllegalArgumentException("the code of '" + code.symbols[i] + "' is not canonical, use canonicalize to re-code the codebook");
+            }
+        }
+        return code;
+    }
+
+    /**
+     * This method is responsible to create the canonical code with the same code length for every letter as a
+     * codebook has. The lengths and so the compression stay the same, but the bits of the codes are handed out again
+     * in canonical order, so text has to be encoded with the new code to be decoded by it.
+     * @param codebook -- It represents the codebook whose code lengths will be used
+     * @return - returns the canonical code
+     */
+    public static CanonicalHuffmanCode canonicalize(HuffmanCodeBook codebook) {
+        char[] symbols = new char[codebook.size()];
+        int[] lengths = new int[codebook.size()];
+        int[] found = {0};
+        codebook.characterLooper(new HuffmanCodeBook.CharacterEfficientLooper() {
+            @Override
+            public void charLoop(char character) {
+                symbols[found[0]] = character;
+                lengths[found[0]++] = codebook.getSequence(character).size();
+            }
+        });
+        return new CanonicalHuffmanCode(symbols, lengths);
+    }
+
+    /**
+     * This method is responsible to check that the lengths leave room for a prefix free code, which is the Kraft
+     * inequality: the sum of 2^-length over all letters is at most 1.
+     * @param order -- It represents the (length << 16 | letter) values in increasing order
+     */
+    private static void checkKraft(long[] order) {
+        long available = 1; // number of unused codes at the current length
+        int length = 0;
+        int i = 0;
+        while (i < order.length) {
+            int next = (int) (order[i] >>> 16);
+            while (length < next) {
+                available = available >= 1L << 62 ? available : available * 2; // beyond 2^62 there is always room
+                length++;
+            }
+            available--;
+            if (available < 0) {
+                throw new IllegalArgumentException("the code lengths are over-subscribed and can't form a prefix code");
+            }
+            i++;
+        }
+    }
+
+    /**
+     * This method is responsible to return the number of letters in the code.
+     * @return - returns the number of letters
+     */
+    public int size() {
+        return symbols.length;
+    }
+
+    /**
+     * This method is responsible to return a letter in canonical order.
+     * @param i -- It represents the position of the letter
+     * @return - returns the letter at the position
+     */
+    public char getSymbol(int i) {
+        return symbols[i];
+    }
+
+    /**
+     * This method is responsible to return the code length of a letter in canonical order.
+     * @param i -- It represents the position of the letter
+     * @return - returns the code length in bits
+     */
+    public int getLength(int i) {
+        return lengths[i];
+    }
+
+    /**
+     * This method is responsible to return the code of a letter in canonical order.
+     * @param i -- It represents the position of the letter
+     * @return - returns the code, right aligned
+     */
+    public long getCode(int i) {
+        return codes[i];
+    }
+
+    /**
+     * This method is responsible to return the longest code length.
+     * @return - returns the length of the last code in canonical order
+     */
+    public int getMaxLength() {
+        return lengths[lengths.length - 1];
+    }
+
+    /**
+     * This method is responsible to count how many bits encoding text with the given letter counts takes.
+     * @param frequencies -- It represents how often every char occurs, indexed by char
+     * @return - returns the total number of bits, letters without a code count as 0 bits
+     */
+    public long encodedBits(long[] frequencies) {
+        long total = 0;
+        for (int i = 0; i < symbols.length; i++) {
+            if (symbols[i] < frequencies.length) {
+                total += frequencies[symbols[i]] * lengths[i];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * This method is responsible to return the code of a letter as a BinarySequence.
+     * @param i -- It represents the position of the letter
+     * @return - returns a new binary sequence holding the code
+     */
+    public BinarySequence getSequence(int i) {
+        char[] bits = new char[lengths[i]];
+        for (int b = 0; b < bits.length; b++) {
+            bits[b] = ((codes[i] >>> (bits.length - 1 - b)) & 1) == 1 ? '1' : '0';
+        }
+        return new BinarySequence(new String(bits));
+    }
+
+    /**
+     * This method is responsible to create a codebook holding every code.
+     * @return - returns the new codebook
+     */
+    public HuffmanCodeBook toCodeBook() {
+        HuffmanCodeBook book = new HuffmanCodeBook();
+        for (int i = 0; i < symbols.length; i++) {
+            book.addSequence(symbols[i], getSequence(i));
+        }
+        return book;
+    }
+
+    /**
+     * This method is responsible to create a Huffman code tree holding every code, building the nodes directly from
+     * the code bits.
+     * @return - returns the new tree
+     */
+    public HuffmanCodeTree toTree() {
+        HuffmanNode root = new HuffmanNode(null, null);
+        for (int i = 0; i < symbols.length; i++) {
+            HuffmanNode node = root;
+            for (int b = lengths[i] - 1; b >= 0; b--) {
+                boolean one = ((codes[i] >>> b) & 1) == 1;
+                HuffmanNode next = one ? node.getOne() : node.getZero();
+                if (next == null) {
+                    next = b == 0 ? new HuffmanNode(symbols[i]) : new HuffmanNode(null, null);
+                    if (one) {
+                        node.setOne(next);
+                    } else {
+                        node.setZero(next);
+                    }
+                }
+                node = next;
+            }
+        }
+        return new HuffmanCodeTree(root);
+    }
+
+    /**
+     * This method is responsible to create a compiled encoder straight from the code arrays.
+     * @return - returns the new encoder
+     */
+    public HuffmanEncoder toEncoder() {
+        return new HuffmanEncoder(symbols, codes, lengths);
+    }
+
+    /**
+     * This method is responsible to create a compiled decoder straight from the code arrays.
+     * @return - returns the new decoder
+     */
+    public HuffmanTableDecoder toDecoder() {
+        return new HuffmanTableDecoder(symbols, codes, lengths, HuffmanTableDecoder.DEFAULT_ROOT_BITS);
+    }
+
+    /**
+     * This method is responsible to create a frozen codec straight from the code arrays.
+     * @return - returns the new codec
+     */
+    public HuffmanCodec toCodec() {
+        return new HuffmanCodec(toEncoder(), toDecoder());
+    }
+
+    /**
+     * This method is responsible to write the code lengths to a stream in the layout described above.
+     * @param out -- It represents the stream that receives the bytes
+     * @throws IOException -- if the stream can't be written
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeByte(getMaxLength());
+        int i = 0;
+        for (int length = 1; length <= getMaxLength(); length++) {
+            int start = i;
+            while (i < symbols.length && lengths[i] == length) {
+                i++;
+            }
+            writeVarint(data, i - start);
+            int previous = 0;
+            for (int s = start; s < i; s++) { // within one length the letters are already in increasing order
+                writeVarint(data, symbols[s] - previous);
+                previous = symbols[s];
+            }
+        }
+        data.flush();
+    }
+
+    /**
+     * This method is responsible to write the code lengths to a file.
+     * @param filename -- It represents the name of the file
+     */
+    public void writeToFile(String filename) {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(Paths.get(filename)))) {
+            writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * This method is responsible to read code lengths stored in the layout described above and rebuild the code. The
+     * result can be compiled with toEncoder, toDecoder or toCodec without building a codebook or a tree.
+     * @param in -- It represents the stream holding the bytes
+     * @return - returns the code that was read
+     * @throws IOException -- if the stream can't be read or does not hold a valid code
+     */
+    public static CanonicalHuffmanCode readFrom(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("not a stored canonical Huffman code");
+        }
+        int version = data.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("unsupported version " + version);
+        }
+        int longest = data.readUnsignedByte();
+        if (longest > MAX_CODE_LENGTH) {
+            throw new IOException("code length " + longest + " is longer than " + MAX_CODE_LENGTH);
+        }
+        char[] symbols = new char[64];
+        int[] lengths = new int[64];
+        int count = 0;
+        for (int length = 1; length <= longest; length++) {
+            int letters = readVarint(data);
+            int letter = 0;
+            for (int l = 0; l < letters; l++) {
+                letter += readVarint(data);
+                if (letter < 0 || letter > Character.MAX_VALUE || count == HuffmanCodeBookBuilder.ALPHABET_SIZE) {
+                    throw new IOException("the stored letters are not valid chars");
+                }
+                if (count == symbols.length) {
+                    symbols = Arrays.copyOf(symbols, count * 2);
+                    lengths = Arrays.copyOf(lengths, count * 2);
+                }
+                symbols[count] = (char) letter;
+                lengths[count++] = length;
+            }
+        }
+        try {
+            return new CanonicalHuffmanCode(Arrays.copyOf(symbols, count), Arrays.copyOf(lengths, count));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("the stored lengths are not a valid code: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * This method is responsible to read code lengths from a file.
+     * @param filename -- It represents the name of the file
+     * @return - returns the code that was read
+     */
+    public static CanonicalHuffmanCode readFromFile(String filename) {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(Paths.get(filename)))) {
+            return readFrom(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * This method is responsible to write a number that is not negative using as few bytes as it needs.
+     * @param out -- It represents the stream that receives the bytes
+     * @param value -- It represents the number
+     * @throws IOException -- if the stream can't be written
+     */
+    private static void writeVarint(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * This method is responsible to read a number written by writeVarint.
+     * @param in -- It represents the stream holding the bytes
+     * @return - returns the number
+     * @throws IOException -- if the stream can't be read or the number does not fit in an int
+     */
+    private static int readVarint(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) {
+                    break;
+                }
+                return value;
+            }
+        }
+        throw new IOException("a stored number is too large");
+    }
+}
@@ -0,0 +1,72 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+public class CanonicalHuffmanCodeTester {
+    public static void main(String[] args) throws IOException {
+        String original = "Once upon a midnight dreary, while I pondered, weak and weary,\n" +
+                "Over many a quaint and curious volume of forgotten lore—\n" +
+                "            Only this and nothing more.\"";
+
+        /////////////////////////////////////////////////
+        // Test 1: the stored form takes a couple of bytes per letter and reads back to the same code
+        /////////////////////////////////////////////////
+        CanonicalHuffmanCode code = HuffmanCodeBookBuilder.buildCode(HuffmanCodeBookBuilder.countFrequencies(original));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        code.writeTo(bytes);
+        System.out.println(code.size());                               // 30
+        System.out.println(bytes.size() <= 6 + 2 * code.size());       // true
+        CanonicalHuffmanCode read = CanonicalHuffmanCode.readFrom(new ByteArrayInputStream(bytes.toByteArray()));
+        boolean same = read.size() == code.size();
+        for (int i = 0; same && i < code.size(); i++) {
+            same = read.getSymbol(i) == code.getSymbol(i) && read.getCode(i) == code.getCode(i) && read.getLength(i) == code.getLength(i);
+        }
+        System.out.println(same);                                      // true
+
+        /////////////////////////////////////////////////
+        // Test 2: the loaded code goes straight to a codec
+        /////////////////////////////////////////////////
+        HuffmanCodec codec = read.toCodec();
+        System.out.println(codec.decode(code.toEncoder().encode(original)).equals(original));   // true
+
+        /////////////////////////////////////////////////
+        // Test 3: a codebook can be stored by its code lengths, re-coded unless its codes are canonical already
+        /////////////////////////////////////////////////
+        HuffmanCodeBook book = ProvidedHuffmanCodeBook.getEbookHuffmanCodebook();
+        CanonicalHuffmanCode fromBook = CanonicalHuffmanCode.canonicalize(book);
+        System.out.println(fromBook.size() == book.size());           // true
+        System.out.println(fromBook.toCodec().encode("Raven").size() == book.encode("Raven").size());   // true
+        System.out.println(CanonicalHuffmanCode.of(code.toCodeBook()).getCode(29) == code.getCode(29));   // true
+        HuffmanCodeBook swapped = new HuffmanCodeBook();
+        swapped.addSequence('a', new BinarySequence("1"));
+        swapped.addSequence('b', new BinarySequence("0"));
+        try {
+            CanonicalHuffmanCode.of(swapped);
+            System.out.println("stored");
+        } catch (IllegalArgumentException e) {
+            System.out.println("rejected");                            // rejected
+        }
+
+        /////////////////////////////////////////////////
+        // Test 4: lengths that can't form a code are rejected when loading
+        /////////////////////////////////////////////////
+        byte[] bad = {0x48, 0x55, 0x46, 0x43, 1, 1, 3, 'a', 1, 1}; // three letters of length 1
+        try {
+            CanonicalHuffmanCode.readFrom(new ByteArrayInputStream(bad));
+            System.out.println("read");
+        } catch (IOException e) {
+            System.out.println("rejected");                            // rejected
+        }
+    }
+}
+/*
+30
+true
+true
+true
+true
+true
+true
+rejected
+rejected
+ */
@@ -0,0 +1,123 @@
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Project 3
+ * Author: Nitish Kumar Yarlagadda
+ * CharArrayPool class
+ */
+public final class CharArrayPool {
+
+    /**
+     * The CharArrayPool class keeps char arrays that were given back so that the next caller who needs one can reuse
+     * it instead of allocating a new one, for example to decode many small messages with HuffmanCodeTree.decode into
+     * a char array. Any thread can take and give back arrays.
+     *
+     * Arrays are grouped in size classes of powers of two from MIN_LENGTH up to MAX_LENGTH, and every class holds at
+     * most a fixed number of arrays in an AtomicReferenceArray. Taking an array swaps a slot to null and giving one back
+     * sets an empty slot, so neither ever blocks or allocates once the pool is warm. Requests larger than MAX_LENGTH
+     * are served with a new array every time and are not kept.
+     */
+
+    public static final int MIN_LENGTH = 64;
+    public static final int MAX_LENGTH = 1 << 20;
+    public static final int DEFAULT_ARRAYS_PER_CLASS = 16;
+    private static final int MIN_SHIFT = Integer.numberOfTrailingZeros(MIN_LENGTH);
+    private static final int CLASSES = Integer.numberOfTrailingZeros(MAX_LENGTH) - MIN_SHIFT + 1;
+    private static final CharArrayPool SHARED = new CharArrayPool(DEFAULT_ARRAYS_PER_CLASS);
+
+    private final AtomicReferenceArray<char[]>[] classes; // classes[k] holds arrays of exactly MIN_LENGTH << k chars
+
+    /**
+     * This constructor is responsible to create an empty pool.
+     * @param arraysPerClass -- It represents how many arrays of each size class the pool keeps at most
+     */
+    @SuppressWarnings("unchecked")
+    public CharArrayPool(int arraysPerClass) {
+        if (arraysPerClass < 1) {
+            throw new IllegalArgumentException("arraysPerClass must be positive: " + arraysPerClass);
+        }
+        classes = (AtomicReferenceArray<char[]>[]) new AtomicReferenceArray<?>[CLASSES];
+        for (int k = 0; k < CLASSES; k++) {
+            classes[k] = new AtomicReferenceArray<>(arraysPerClass);
+        }
+    }
+
+    /**
+     * This method is responsible to return the pool shared by the whole program.
+     * @return - returns the shared pool
+     */
+    public static CharArrayPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * This method is responsible to hand out an array with at least the given length, reusing a pooled one if there is
+     * one. Its contents are whatever the last user left in it.
+     * @param minLength -- It represents the number of chars the caller needs
+     * @return - returns an array of at least minLength chars, a power of two long unless minLength is above MAX_LENGTH
+     */
+    public char[] acquire(int minLength) {
+        if (minLength < 0) {
+            throw new IllegalArgumentException("minLength can't be negative: " + minLength);
+        }
+        if (minLength > MAX_LENGTH) {
+            return new char[minLength];
+        }
+        int k = sizeClass(minLength);
+        AtomicReferenceArray<char[]> slots = classes[k];
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) != null) {
+                char[] array = slots.getAndSet(i, null);
+                if (array != null) {
+                    return array; // another thread may have taken it between the get and the swap
+                }
+            }
+        }
+        return new char[MIN_LENGTH << k];
+    }
+
+    /**
+     * This method is responsible to take back an array so a later acquire can reuse it. Arrays whose length is not one
+     * of the size classes, and arrays of a class that is already full, are left to the garbage collector. The caller
+     * must not use the array after giving it back.
+     * @param array -- It represents the array to give back
+     */
+    public void release(char[] array) {
+        int length = array.length;
+        if (length < MIN_LENGTH || length > MAX_LENGTH || Integer.bitCount(length) != 1) {
+            return;
+        }
+        AtomicReferenceArray<char[]> slots = classes[sizeClass(length)];
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) == null && slots.compareAndSet(i, null, array)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * This method is responsible to return the number of arrays the pool holds right now.
+     * @return - returns the number of pooled arrays
+     */
+    public int size() {
+        int count = 0;
+        for (AtomicReferenceArray<char[]> slots : classes) {
+            for (int i = 0; i < slots.length(); i++) {
+                count += slots.get(i) == null ? 0 : 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * This method is responsible to find the size class whose arrays are the smallest ones holding the given length.
+     * @param length -- It represents the number of chars, at most MAX_LENGTH
+     * @return - returns the index of the size class
+     */
+    private static int sizeClass(int length) {
+        if (length <= MIN_LENGTH) {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(length - 1) - MIN_SHIFT; // the power of two at or above length
+    }
+}
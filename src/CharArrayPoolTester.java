@@ -0,0 +1,64 @@
+public class CharArrayPoolTester {
+    public static void main(String[] args) throws InterruptedException {
+        /////////////////////////////////////////////////
+        // Test 1: arrays come in power of two sizes and are reused after release
+        /////////////////////////////////////////////////
+        CharArrayPool pool = new CharArrayPool(2);
+        char[] first = pool.acquire(100);
+        System.out.println(first.length);                              // 128
+        System.out.println(pool.acquire(10).length);                   // 64
+        pool.release(first);
+        System.out.println(pool.size());                               // 1
+        System.out.println(pool.acquire(120) == first);                // true
+        System.out.println(pool.size());                               // 0
+
+        /////////////////////////////////////////////////
+        // Test 2: odd sizes, huge sizes and full classes are not kept
+        /////////////////////////////////////////////////
+        pool.release(new char[100]);
+        pool.release(new char[CharArrayPool.MAX_LENGTH * 2]);
+        System.out.println(pool.acquire(CharArrayPool.MAX_LENGTH + 1).length);   // 1048577
+        pool.release(new char[256]);
+        pool.release(new char[256]);
+        pool.release(new char[256]);
+        System.out.println(pool.size());                               // 2
+
+        /////////////////////////////////////////////////
+        // Test 3: threads share the pool without losing or doubling arrays
+        /////////////////////////////////////////////////
+        CharArrayPool shared = new CharArrayPool(8);
+        Thread[] workers = new Thread[4];
+        boolean[] clash = new boolean[1];
+        for (int t = 0; t < workers.length; t++) {
+            char mark = (char) ('A' + t);
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < 20000; i++) {
+                    char[] array = shared.acquire(1000);
+                    array[0] = mark;
+                    Thread.yield();
+                    if (array[0] != mark) {
+                        clash[0] = true; // another thread had the same array at the same time
+                    }
+                    shared.release(array);
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        System.out.println(clash[0]);                                  // false
+        System.out.println(shared.size() <= 8);                        // true
+    }
+}
+/*
+128
+64
+1
+true
+0
+1048577
+2
+false
+true
+ */
@@ -0,0 +1,176 @@
+import java.util.Arrays;
+
+/**
+ * Project 3
+ * Author: Nitish Kumar Yarlagadda
+ * CharIndex class
+ */
+public class CharIndex {
+
+    /**
+     * The CharIndex class numbers the characters added to it 0, 1, 2, ... in the order they are added, so that other
+     * classes can keep per character data in plain arrays indexed by that number. Characters below 256 are found with a
+     * single array read, all other characters go through a small open addressing hash table with linear probing. No
+     * lookup ever recurses or walks a list.
+     */
+
+    private static final int DENSE_SIZE = 256;
+
+    private final int[] dense; // slot + 1 for every char below 256, 0 when the char was never added
+    private char[] sparseKeys; // open addressing table for chars from 256 up
+    private int[] sparseSlots; // slot + 1 of sparseKeys[i], 0 marks an empty bucket
+    private int sparseCount;
+    private char[] chars; // chars[slot] is the char that was given the slot
+    private int size;
+
+    /**
+     * This constructor is a 0 argument constructor that is responsible to create an empty index.
+     */
+    public CharIndex() {
+        dense = new int[DENSE_SIZE];
+        sparseKeys = new char[8];
+        sparseSlots = new int[8];
+        chars = new char[16];
+    }
+
+    /**
+     * This constructor is responsible to create an independent copy of another index.
+     * @param other -- It represents the index that needs to be copied
+     */
+    public CharIndex(CharIndex other) {
+        dense = other.dense.clone();
+        sparseKeys = other.sparseKeys.clone();
+        sparseSlots = other.sparseSlots.clone();
+        sparseCount = other.sparseCount;
+        chars = Arrays.copyOf(other.chars, Math.max(other.size, 1));
+        size = other.size;
+    }
+
+    /**
+     * This method is responsible to return the slot of the given char.
+     * @param c -- It represents the char to look up
+     * @return - returns the slot of the char, or -1 if the char was never added
+     */
+    public int indexOf(char c) {
+        if (c < DENSE_SIZE) {
+            return dense[c] - 1;
+        }
+        int mask = sparseKeys.length - 1;
+        for (int bucket = hash(c) & mask; ; bucket = (bucket + 1) & mask) {
+            int slot = sparseSlots[bucket];
+            if (slot == 0) {
+                return -1; // reached an empty bucket, so the char is not in the table
+            }
+            if (sparseKeys[bucket] == c) {
+                return slot - 1;
+            }
+        }
+    }
+
+    /**
+     * This method is responsible to check if the given char was added.
+     * @param c -- It represents the char to look up
+     * @return - returns true if the char has a slot otherwise false
+     */
+    public boolean contains(char c) {
+        return indexOf(c) >= 0;
+    }
+
+    /**
+     * This method is responsible to give the char a slot if it does not have one yet.
+     * @param c -- It represents the char to add
+     * @return - returns the slot of the char, which is the next free slot if the char is new
+     */
+    public int add(char c) {
+        int existing = indexOf(c);
+        if (existing >= 0) {
+            return existing;
+        }
+        if (size == chars.length) {
+            chars = Arrays.copyOf(chars, size * 2);
+        }
+        int slot = size++;
+        chars[slot] = c;
+        if (c < DENSE_SIZE) {
+            dense[c] = slot + 1;
+        } else {
+            if ((sparseCount + 1) * 2 > sparseKeys.length) {
+                rehash(sparseKeys.length * 2); // keeping the table at most half full keeps the probe runs short
+            }
+            insertSparse(c, slot + 1);
+            sparseCount++;
+        }
+        return slot;
+    }
+
+    /**
+     * This method is responsible to return the char that was given a slot.
+     * @param slot -- It represents the slot, between 0 and size() - 1
+     * @return - returns the char stored in the slot
+     */
+    public char charAt(int slot) {
+        if (slot < 0 || slot >= size) {
+            throw new IndexOutOfBoundsException("slot " + slot + " of " + size);
+        }
+        return chars[slot];
+    }
+
+    /**
+     * This method is responsible to return the number of chars in the index.
+     * @return - returns the number of chars added so far
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * This method is responsible to return every char in the index in increasing order.
+     * @return - returns a new array with the chars sorted
+     */
+    public char[] sortedChars() {
+        char[] sorted = Arrays.copyOf(chars, size);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * This method is responsible to put a key in the first free bucket of its probe run.
+     * @param c -- It represents the char to store
+     * @param storedSlot -- It represents the slot + 1 of the char
+     */
+    private void insertSparse(char c, int storedSlot) {
+        int mask = sparseKeys.length - 1;
+        int bucket = hash(c) & mask;
+        while (sparseSlots[bucket] != 0) {
+            bucket = (bucket + 1) & mask;
+        }
+        sparseKeys[bucket] = c;
+        sparseSlots[bucket] = storedSlot;
+    }
+
+    /**
+     * This method is responsible to move every sparse key into a table of the given capacity.
+     * @param capacity -- It represents the new number of buckets, a power of two
+     */
+    private void rehash(int capacity) {
+        char[] oldKeys = sparseKeys;
+        int[] oldSlots = sparseSlots;
+        sparseKeys = new char[capacity];
+        sparseSlots = new int[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldSlots[i] != 0) {
+                insertSparse(oldKeys[i], oldSlots[i]);
+            }
+        }
+    }
+
+    /**
+     * This method is responsible to spread the bits of a char so that nearby chars land in different buckets.
+     * @param c -- It represents the char to hash
+     * @return - returns the mixed hash of the char
+     */
+    private static int hash(char c) {
+        int h = c * 0x9E3779B1;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,54 @@
+public class CharIndexTester {
+    public static void main(String[] args) {
+        CharIndex index = new CharIndex();
+        System.out.println(index.size());                  // 0
+        System.out.println(index.contains('\0'));          // false
+        System.out.println(index.indexOf('‽'));            // -1
+
+        // slots are handed out in the order chars are added, wherever they are stored
+        System.out.println(index.add('a'));                // 0
+        System.out.println(index.add('œ'));                // 1
+        System.out.println(index.add('\0'));               // 2
+        System.out.println(index.add('‽'));                // 3
+        System.out.println(index.add('a'));                // 0
+        System.out.println(index.size());                  // 4
+        System.out.println(index.indexOf('‽'));            // 3
+        System.out.println(index.charAt(1));               // œ
+        System.out.println(index.contains('b'));           // false
+        System.out.println(new String(index.sortedChars()).equals("\0aœ‽"));   // true
+
+        // lots of high chars added in sorted order, which used to turn the codebook into a linked list
+        for (char c = 0x4E00; c < 0x4E00 + 20000; c++) {
+            index.add(c);
+        }
+        System.out.println(index.size());                  // 20004
+        System.out.println(index.indexOf((char) (0x4E00 + 19999)));   // 20003
+        System.out.println(index.indexOf((char) (0x4E00 + 20000)));   // -1
+
+        // copies don't see later changes
+        CharIndex copy = new CharIndex(index);
+        index.add('Z');
+        System.out.println(copy.contains('Z'));            // false
+        System.out.println(copy.indexOf('œ'));             // 1
+    }
+}
+/*
+0
+false
+-1
+0
+1
+2
+3
+0
+4
+3
+œ
+false
+true
+20004
+20003
+-1
+false
+1
+ */
@@ -63,9 +63,10 @@ public class DecodeEncodeTester {
                 "pg46.txt",
                 "pg996.txt",
                 "pg64317.txt"};
+        HuffmanTableDecoder decoder = tree.compile();
         for(String file : files) {
             BinarySequence code = BinarySequence.readFromFile(file+".enc");
-            String text = tree.decode(code);
+            String text = decoder.decode(code);
             FileIOAssistance.writeFile(file, text);
         }
         // for extra fun -- go check out the file size of the encoded and not encoded files!
@@ -0,0 +1,213 @@
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * Project 3
+ * Author: Nitish Kumar Yarlagadda
+ * FlatHuffmanCodeTree class
+ */
+public class FlatHuffmanCodeTree {
+
+    /**
+     * The FlatHuffmanCodeTree class stores the same kind of tree as HuffmanCodeTree but without a HuffmanNode object per
+     * node. Node i keeps its children in children[2 * i] (zero) and children[2 * i + 1] (one), its letter in data[i],
+     * and whether a letter was set in hasData[i]. A missing child is stored as -1. The root is node 0 and a tree built
+     * by a constructor is laid out in breadth first order, so the top levels that every decode step passes through sit
+     * next to each other in memory.
+     */
+
+    private static final int NONE = -1;
+
+    private int[] children;
+    private char[] data;
+    private boolean[] hasData;
+    private int count;
+
+    /**
+     * This constructor is responsible to create a flat tree with the same shape and letters as the tree below the given
+     * node.
+     * @param root -- It represents the root node of the binary tree
+     */
+    public FlatHuffmanCodeTree(HuffmanNode root) {
+        allocate(16);
+        count = 1;
+        ArrayDeque<HuffmanNode> queue = new ArrayDeque<>(); // nodes are numbered in the order they are queued
+        queue.add(root);
+        int index = 0;
+        while (!queue.isEmpty()) {
+            HuffmanNode node = queue.poll();
+            if (node.getData() != null) {
+                data[index] = node.getData();
+                hasData[index] = true;
+            }
+            HuffmanNode[] kids = {node.getZero(), node.getOne()};
+            for (int bit = 0; bit < 2; bit++) {
+                if (kids[bit] != null) {
+                    int added = newNode();
+                    children[2 * index + bit] = added;
+                    queue.add(kids[bit]);
+                }
+            }
+            index++;
+        }
+    }
+
+    /**
+     * This constructor is responsible to create a flat tree based on the data stored in a Huffman code book.
+     * @param codebook - It represents the codebook that will be used to construct the tree
+     */
+    public FlatHuffmanCodeTree(HuffmanCodeBook codebook) {
+        allocate(16);
+        count = 1;
+        codebook.characterLooper(new HuffmanCodeBook.CharacterEfficientLooper() {
+            @Override
+            public void charLoop(char character) {
+                put(codebook.getSequence(character), character);
+            }
+        });
+        relayout(); // puts add nodes in insertion order, so sort them into breadth first order once at the end
+    }
+
+    /**
+     * This method is responsible to check if the tree is a valid Huffman code tree, meaning every node is either a leaf
+     * with a letter and no children or an internal node with two children and no letter.
+     * @return - returns a boolean value indicating if the tree formed is valid or not
+     */
+    public boolean isValid() {
+        for (int i = 0; i < count; i++) {
+            boolean noChildren = children[2 * i] == NONE && children[2 * i + 1] == NONE;
+            boolean bothChildren = children[2 * i] != NONE && children[2 * i + 1] != NONE;
+            if (!(hasData[i] && noChildren) && !(!hasData[i] && bothChildren)) {
+                return false; // every node in the arrays is reachable from the root so one bad node is enough
+            }
+        }
+        return true;
+    }
+
+    /**
+     * This method is responsible to modify the tree so that the node addressed by the binary sequence stores the given
+     * char, creating any missing nodes along the way.
+     * @param seq -- It represents the binary sequence which will be added to the tree
+     * @param letter -- It represents the letter that is associated with the binary sequence
+     */
+    public void put(BinarySequence seq, char letter) {
+        int node = 0;
+        for (boolean eachBit : seq) {
+            int slot = 2 * node + (eachBit ? 1 : 0);
+            if (children[slot] == NONE) {
+                int added = newNode();
+                children[slot] = added; // stored after newNode returns since it may have replaced the children array
+            }
+            node = children[slot];
+        }
+        data[node] = letter;
+        hasData[node] = true;
+    }
+
+    /**
+     * This method is responsible to decode a BinarySequence into a string with the assumption that the tree is currently
+     * valid, and that the binary sequence is of a correct length.
+     * @param s -- It represents the BinarySequence that need to be decoded into a string
+     * @return - returns the decoded string
+     */
+    public String decode(BinarySequence s) {
+        StringBuilder outputString = new StringBuilder();
+        int node = 0;
+        for (boolean eachBit : s) {
+            node = children[2 * node + (eachBit ? 1 : 0)];
+            if (isLeaf(node)) {
+                outputString.append(data[node]);
+                node = 0;
+            }
+        }
+        return outputString.toString();
+    }
+
+    /**
+     * This method is responsible to decode packed bits into a string without boxing a Boolean per bit.
+     * @param bits -- It represents the packed bits that need to be decoded
+     * @return - returns the decoded string
+     */
+    public String decode(PackedBinarySequence bits) {
+        StringBuilder outputString = new StringBuilder();
+        int node = 0;
+        long size = bits.size();
+        for (long i = 0; i < size; i++) {
+            node = children[2 * node + (bits.get(i) ? 1 : 0)];
+            if (isLeaf(node)) {
+                outputString.append(data[node]);
+                node = 0;
+            }
+        }
+        return outputString.toString();
+    }
+
+    /**
+     * This method is responsible to return the number of nodes in the tree.
+     * @return - returns the node count
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * This method is responsible to check if a node has a letter and no children.
+     * @param node -- It represents the index of the node
+     * @return - returns true if the node is a leaf otherwise false
+     */
+    private boolean isLeaf(int node) {
+        return hasData[node] && children[2 * node] == NONE && children[2 * node + 1] == NONE;
+    }
+
+    /**
+     * This method is responsible to add an empty node at the end of the arrays, growing them when they are full.
+     * @return - returns the index of the new node
+     */
+    private int newNode() {
+        if (count == data.length) {
+            int capacity = count * 2;
+            int oldLength = children.length;
+            children = Arrays.copyOf(children, capacity * 2);
+            Arrays.fill(children, oldLength, children.length, NONE);
+            data = Arrays.copyOf(data, capacity);
+            hasData = Arrays.copyOf(hasData, capacity);
+        }
+        return count++;
+    }
+
+    /**
+     * This method is responsible to create empty arrays with room for the given number of nodes.
+     * @param capacity -- It represents how many nodes fit before the arrays have to grow
+     */
+    private void allocate(int capacity) {
+        children = new int[capacity * 2];
+        Arrays.fill(children, NONE);
+        data = new char[capacity];
+        hasData = new boolean[capacity];
+    }
+
+    /**
+     * This method is responsible to renumber the nodes in breadth first order and trim the arrays to the node count.
+     */
+    private void relayout() {
+        int[] oldChildren = children;
+        char[] oldData = data;
+        boolean[] oldHasData = hasData;
+        int nodes = count;
+        allocate(nodes);
+        int[] queue = new int[nodes]; // queue[i] is the old index of the node that gets the new index i
+        int tail = 1;
+        for (int i = 0; i < nodes; i++) {
+            int old = queue[i];
+            data[i] = oldData[old];
+            hasData[i] = oldHasData[old];
+            for (int bit = 0; bit < 2; bit++) {
+                int child = oldChildren[2 * old + bit];
+                if (child != NONE) {
+                    children[2 * i + bit] = tail;
+                    queue[tail++] = child;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+public class FlatHuffmanCodeTreeTester {
+    public static void main(String[] args) {
+        /////////////////////////////////////////////////
+        // Test 1: build with put, same steps as HuffmanCodeTreeTester
+        /////////////////////////////////////////////////
+        FlatHuffmanCodeTree tree = new FlatHuffmanCodeTree(new HuffmanNode(null, null));
+        System.out.println(tree.isValid());              // false
+        tree.put(new BinarySequence("1"), 'o');
+        tree.put(new BinarySequence("011"), 'g');
+        tree.put(new BinarySequence("0100"), 'y');
+        tree.put(new BinarySequence("0101"), '!');
+        tree.put(new BinarySequence("000"), 'v');
+        System.out.println(tree.isValid());              // false
+        tree.put(new BinarySequence("001"), 'r');
+        System.out.println(tree.isValid());              // true
+        System.out.println(tree.size());                 // 11
+        BinarySequence encoded = new BinarySequence("01100111000010001010101");
+        System.out.println(tree.decode(encoded));        // groovy!!
+        System.out.println(tree.decode(PackedBinarySequence.of(encoded)));   // groovy!!
+        tree.put(new BinarySequence("11"), '"');
+        System.out.println(tree.isValid());              // false
+
+        /////////////////////////////////////////////////
+        // Test 2: pre-built tree
+        /////////////////////////////////////////////////
+        HuffmanNode temp1 = new HuffmanNode(new HuffmanNode('a'), new HuffmanNode('b'));
+        HuffmanNode temp2 = new HuffmanNode(new HuffmanNode('c'), new HuffmanNode('d'));
+        tree = new FlatHuffmanCodeTree(new HuffmanNode(temp1, temp2));
+        System.out.println(tree.isValid());              // true
+        System.out.println(tree.decode(new BinarySequence("11011000")));     // dbca
+        tree = new FlatHuffmanCodeTree(new HuffmanNode(temp1, null));
+        System.out.println(tree.isValid());              // false
+
+        /////////////////////////////////////////////////
+        // Test 3: provided codebook
+        /////////////////////////////////////////////////
+        HuffmanCodeBook book = ProvidedHuffmanCodeBook.getEbookHuffmanCodebook();
+        tree = new FlatHuffmanCodeTree(book);
+        System.out.println(tree.isValid());              // true
+        String original = "Once upon a midnight dreary, while I pondered, weak and weary,\n" +
+                "Over many a quaint and curious volume of forgotten lore—\n" +
+                "            Only this and nothing more.\"";
+        System.out.println(original.equals(tree.decode(book.encode(original))));   // true
+        System.out.println(new HuffmanCodeTree(book).decode(book.encode(original)).equals(tree.decode(book.encode(original))));   // true
+    }
+}
+/*
+false
+false
+true
+11
+groovy!!
+groovy!!
+false
+true
+dbca
+false
+true
+true
+true
+ */
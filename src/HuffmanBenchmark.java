@@ -0,0 +1,343 @@
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Project 3
+ * Author: Nitish Kumar Yarlagadda
+ * HuffmanBenchmark class
+ */
+public class HuffmanBenchmark {
+
+    /**
+     * The HuffmanBenchmark class is a small benchmark harness for the codebook and the tree. Every benchmark is run on
+     * every input: synthetic texts with uniform and skewed letter distributions over small and large alphabets, plus
+     * the Gutenberg books used by DecodeEncodeTester when they are in the working directory. Each run warms up first,
+     * then times every single call and reports throughput, latency percentiles, and the bytes allocated per call and
+     * per second as measured by the thread allocation counter of the JVM.
+     *
+     * Lookups such as getSequence, containsAll and isValid take about as long as System.nanoTime itself, so timing them
+     * one call at a time would mostly measure the clock. Those are timed in batches sized from the warmup so a batch
+     * lasts at least MIN_BATCH_NANOS, their throughput comes from the total number of calls, and no latency
+     * percentiles are printed for them since a batch average is not the latency of one call.
+     *
+     * Usage: java HuffmanBenchmark [-w warmupMillis] [-m measureMillis] [-s size,size,...] [filter]
+     * where only benchmarks or inputs whose name contains filter are run. Adding --add-modules jdk.incubator.vector
+     * -Dhuffman.vector=true runs the counting and encoding benchmarks with the HuffmanVectorSupport loops.
+     */
+
+    private static final String[] BOOKS = {"16-0.txt", "23-0.txt", "36-0.txt", "43-0.txt", "84-0.txt", "345-0.txt",
+            "829-0.txt", "1661-0.txt", "4300-0.txt", "6130-0.txt", "pg46.txt", "pg996.txt", "pg64317.txt"};
+
+    private static final long MIN_BATCH_NANOS = 100_000; // a batch this long makes the cost of reading the clock negligible
+
+    private static volatile long sink; // results are folded in here so the JIT can't drop the measured work
+
+    /**
+     * This method is responsible to run the benchmarks selected by the arguments and print one line per result.
+     * @param args -- It represents the options described in the class comment
+     */
+    public static void main(String[] args) {
+        long warmupMillis = 1000;
+        long measureMillis = 2000;
+        int[] sizes = {10_000, 1_000_000};
+        String filter = "";
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-w" -> warmupMillis = Long.parseLong(args[++i]);
+                case "-m" -> measureMillis = Long.parseLong(args[++i]);
+                case "-s" -> sizes = Arrays.stream(args[++i].split(",")).mapToInt(Integer::parseInt).toArray();
+                default -> filter = args[i];
+            }
+        }
+
+        List<Input> inputs = new ArrayList<>();
+        for (int size : sizes) {
+            inputs.add(new Input("uniform-26-" + size, uniformText(size, 26, 'a')));
+            inputs.add(new Input("uniform-256-" + size, uniformText(size, 256, 'Ā')));
+            inputs.add(new Input("skewed-256-" + size, skewedText(size, 256, 'Ā')));
+        }
+        for (String book : BOOKS) {
+            if (Files.exists(Paths.get(book))) {
+                inputs.add(new Input(book, FileIOAssistance.readFile(book)));
+            }
+        }
+
+        System.out.println(String.format(Locale.ROOT, "%-14s %-22s %12s %12s %12s %12s %14s %12s",
+                "benchmark", "input", "ops/s", "p50 us", "p90 us", "p99 us", "bytes/op", "alloc MB/s"));
+        for (Input input : inputs) {
+            for (Benchmark benchmark : benchmarks(input)) {
+                if (!filter.isEmpty() && !benchmark.name.contains(filter) && !input.name.contains(filter)) {
+                    continue;
+                }
+                Result result = run(benchmark.workload, benchmark.batched, warmupMillis, measureMillis);
+                System.out.println(String.format(Locale.ROOT, "%-14s %-22s %12.1f %12s %12s %12s %14.0f %12.1f",
+                        benchmark.name, input.name, result.opsPerSecond(), result.latency(0.50), result.latency(0.90),
+                        result.latency(0.99), result.bytesPerOp(), result.allocationRate()));
+            }
+        }
+    }
+
+    /**
+     * This method is responsible to create every benchmark for one input.
+     * @param input -- It represents the text and the codes built for it
+     * @return - returns the benchmarks
+     */
+    private static List<Benchmark> benchmarks(Input input) {
+        String letters = input.letters;
+        List<Benchmark> list = new ArrayList<>();
+        list.add(new Benchmark("encode", () -> input.book.encode(input.text).size()));
+        list.add(new Benchmark("decode", () -> input.tree.decode(input.encoded).length()));
+        list.add(new Benchmark("tree-build", () -> new HuffmanCodeTree(input.book).isValid() ? 1 : 0));
+        list.add(new Benchmark("getSequence", true, () -> {
+            long total = 0;
+            for (int i = 0; i < letters.length(); i++) {
+                total += input.book.getSequence(letters.charAt(i)).size();
+            }
+            return total;
+        }));
+        list.add(new Benchmark("containsAll", true, () -> input.book.containsAll(letters) ? 1 : 0));
+        list.add(new Benchmark("isValid", true, () -> input.tree.isValid() ? 1 : 0));
+        list.add(new Benchmark("count", () -> HuffmanCodeBookBuilder.countFrequencies(input.text)[' ']));
+        list.add(new Benchmark("encoded-length", () -> input.encoder.encodedBitLength(input.text)));
+        list.add(new Benchmark("encode-packed", () -> input.encoder.encode(input.text).size()));
+        list.add(new Benchmark("decode-table", () -> input.decoder.decode(input.packed).length()));
+        list.add(new Benchmark("decode-4stream", () -> input.interleaved.decode(input.decoder).length()));
+        list.add(new Benchmark("decode-multi", () -> input.multiDecoder.decode(input.packed).length()));
+        return list;
+    }
+
+    /**
+     * This method is responsible to warm a workload up and then time every call of it, or every batch of calls for a
+     * batched workload.
+     * @param workload -- It represents the work to measure
+     * @param batched -- It represents true to time batches of calls instead of single calls
+     * @param warmupMillis -- It represents how long to run before measuring
+     * @param measureMillis -- It represents how long to measure
+     * @return - returns the timings and allocations
+     */
+    private static Result run(Workload workload, boolean batched, long warmupMillis, long measureMillis) {
+        long warmupStart = System.nanoTime();
+        long warmupEnd = warmupStart + warmupMillis * 1_000_000;
+        long warmupCalls = 0;
+        do {
+            sink += workload.run();
+            warmupCalls++;
+        } while (System.nanoTime() < warmupEnd);
+        long callNanos = Math.max(1, (System.nanoTime() - warmupStart) / warmupCalls);
+        int batch = batched ? (int) Math.min(1 << 20, Math.max(1, MIN_BATCH_NANOS / callNanos)) : 1;
+        System.gc();
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long[] samples = new long[1024];
+        int count = 0;
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        long end = start + measureMillis * 1_000_000;
+        long now = start;
+        while (now < end || count < 5) {
+            long before = now;
+            for (int i = 0; i < batch; i++) {
+                sink += workload.run();
+            }
+            now = System.nanoTime();
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+            }
+            samples[count++] = now - before;
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+        return new Result(Arrays.copyOf(samples, count), batch, now - start, allocated);
+    }
+
+    /**
+     * This method is responsible to create a text where every letter of the alphabet is equally likely.
+     * @param size -- It represents the number of chars
+     * @param alphabet -- It represents the number of different letters
+     * @param first -- It represents the first letter of the alphabet
+     * @return - returns the text
+     */
+    private static String uniformText(int size, int alphabet, char first) {
+        Random random = new Random(42);
+        char[] text = new char[size];
+        for (int i = 0; i < size; i++) {
+            text[i] = (char) (first + random.nextInt(alphabet));
+        }
+        return new String(text);
+    }
+
+    /**
+     * This method is responsible to create a text with a Zipf distribution, where the k-th letter is k times less
+     * likely than the first one, like the letters and words of natural language.
+     * @param size -- It represents the number of chars
+     * @param alphabet -- It represents the number of different letters
+     * @param first -- It represents the first letter of the alphabet
+     * @return - returns the text
+     */
+    private static String skewedText(int size, int alphabet, char first) {
+        double[] cumulative = new double[alphabet];
+        double total = 0;
+        for (int k = 0; k < alphabet; k++) {
+            total += 1.0 / (k + 1);
+            cumulative[k] = total;
+        }
+        Random random = new Random(42);
+        char[] text = new char[size];
+        for (int i = 0; i < size; i++) {
+            int found = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            text[i] = (char) (first + Math.min(found >= 0 ? found : -found - 1, alphabet - 1));
+        }
+        return new String(text);
+    }
+
+
+
+    // The below code represents the inputs, benchmarks and results handled by the harness
+
+    /**
+     * This represents an interface for the work that one benchmark call does.
+     */
+    private interface Workload {
+        long run(); // returns something derived from the result so it is not optimized away
+    }
+
+    /**
+     * This class represents a named workload.
+     */
+    private static class Benchmark {
+        private final String name;
+        private final boolean batched; // true for calls too short to time one at a time
+        private final Workload workload;
+
+        /**
+         * This constructor is responsible to name a workload whose calls are timed one at a time.
+         * @param name -- It represents the name printed in the results
+         * @param workload -- It represents the work to measure
+         */
+        private Benchmark(String name, Workload workload) {
+            this(name, false, workload);
+        }
+
+        /**
+         * This constructor is responsible to name a workload.
+         * @param name -- It represents the name printed in the results
+         * @param batched -- It represents true to time batches of calls instead of single calls
+         * @param workload -- It represents the work to measure
+         */
+        private Benchmark(String name, boolean batched, Workload workload) {
+            this.name = name;
+            this.batched = batched;
+            this.workload = workload;
+        }
+    }
+
+    /**
+     * This class represents a text together with the codes built for it and its encoded forms.
+     */
+    private static class Input {
+        private final String name;
+        private final String text;
+        private final String letters; // every different letter of the text once
+        private final HuffmanCodeBook book;
+        private final HuffmanCodeTree tree;
+        private final BinarySequence encoded;
+        private final HuffmanEncoder encoder;
+        private final HuffmanTableDecoder decoder;
+        private final HuffmanMultiSymbolDecoder multiDecoder;
+        private final PackedBinarySequence packed;
+        private final HuffmanInterleavedStreams interleaved;
+
+        /**
+         * This constructor is responsible to build the codes of a text and encode it once up front.
+         * @param name -- It represents the name printed in the results
+         * @param text -- It represents the text
+         */
+        private Input(String name, String text) {
+            this.name = name;
+            this.text = text;
+            CanonicalHuffmanCode code = HuffmanCodeBookBuilder.buildCode(HuffmanCodeBookBuilder.countFrequencies(text));
+            StringBuilder found = new StringBuilder();
+            for (int i = 0; i < code.size(); i++) {
+                found.append(code.getSymbol(i));
+            }
+            this.letters = found.toString();
+            this.book = code.toCodeBook();
+            this.tree = new HuffmanCodeTree(book);
+            this.encoded = book.encode(text);
+            this.encoder = code.toEncoder();
+            this.decoder = code.toDecoder();
+            this.multiDecoder = new HuffmanMultiSymbolDecoder(decoder);
+            this.packed = encoder.encode(text);
+            this.interleaved = HuffmanInterleavedStreams.encode(text, encoder, HuffmanInterleavedStreams.DEFAULT_STREAMS);
+        }
+    }
+
+    /**
+     * This class represents the measurements of one benchmark on one input.
+     */
+    private static class Result {
+        private final long[] sorted; // nanoseconds of every sample, sorted
+        private final int batch; // calls per sample
+        private final long elapsed;
+        private final long allocated;
+
+        /**
+         * This constructor is responsible to store the measurements.
+         * @param samples -- It represents the nanoseconds of every sample
+         * @param batch -- It represents the number of calls timed by each sample
+         * @param elapsed -- It represents the nanoseconds of the whole measurement
+         * @param allocated -- It represents the bytes allocated during the measurement
+         */
+        private Result(long[] samples, int batch, long elapsed, long allocated) {
+            Arrays.sort(samples);
+            this.sorted = samples;
+            this.batch = batch;
+            this.elapsed = elapsed;
+            this.allocated = allocated;
+        }
+
+        /**
+         * This method is responsible to return how many calls finished per second.
+         * @return - returns the throughput
+         */
+        private double opsPerSecond() {
+            return (double) sorted.length * batch * 1e9 / elapsed;
+        }
+
+        /**
+         * This method is responsible to return the time within which the given share of the calls finished, or "-"
+         * when the calls were timed in batches and single calls have no latency of their own.
+         * @param p -- It represents the share of calls, between 0 and 1
+         * @return - returns the latency in microseconds, formatted for the results table
+         */
+        private String latency(double p) {
+            if (batch > 1) {
+                return "-";
+            }
+            long nanos = sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)];
+            return String.format(Locale.ROOT, "%.1f", nanos / 1e3);
+        }
+
+        /**
+         * This method is responsible to return the average number of bytes allocated by one call.
+         * @return - returns the bytes per call
+         */
+        private double bytesPerOp() {
+            return (double) allocated / ((long) sorted.length * batch);
+        }
+
+        /**
+         * This method is responsible to return how fast memory was allocated while measuring.
+         * @return - returns the allocation rate in MB per second
+         */
+        private double allocationRate() {
+            return allocated / 1e6 / (elapsed / 1e9);
+        }
+    }
+}
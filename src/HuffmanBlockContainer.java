@@ -0,0 +1,375 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Project 3
+ * Author: Nitish Kumar Yarlagadda
+ * HuffmanBlockContainer class
+ */
+public class HuffmanBlockContainer {
+
+    /**
+     * The HuffmanBlockContainer class splits a text into blocks that are encoded independently of each other and keeps
+     * an index holding the bit offset and the number of letters of every block. Since every block starts at a known
+     * bit and writes to a known place in the output, blocks can be encoded and decoded on all the cores of a
+     * ForkJoinPool and stitched back together in order.
+     *
+     * The stored layout is a header followed by the bits of all blocks one after the other:
+     *     int MAGIC, int blockCount, then (long bitOffset, int letters) for every block,
+     *     then the bits in the layout described in PackedBinarySequence.
+     */
+
+    public static final int MAGIC = 0x48554642; // "HUFB"
+    public static final int DEFAULT_BLOCK_CHARS = 1 << 20;
+
+    private final PackedBinarySequence bits;
+    private final long[] offsets; // offsets[i] is the first bit of block i, offsets[blockCount] is bits.size()
+    private final int[] letters; // letters[i] is the number of letters decoded from block i
+    private final long textLength;
+
+    /**
+     * This constructor is responsible to create a container from its bits and index.
+     * @param bits -- It represents the bits of every block one after the other
+     * @param offsets -- It represents the first bit of every block, followed by the total number of bits
+     * @param letters -- It represents the number of letters in every block
+     */
+    private HuffmanBlockContainer(PackedBinarySequence bits, long[] offsets, int[] letters) {
+        this.bits = bits;
+        this.offsets = offsets;
+        this.letters = letters;
+        long total = 0;
+        for (int count : letters) {
+            total += count;
+        }
+        this.textLength = total;
+    }
+
+    /**
+     * This method is responsible to encode a text in blocks of the default size using the common pool.
+     * @param text -- It represents the text that needs to be encoded
+     * @param encoder -- It represents the compiled codes to encode with
+     * @return - returns the encoded container
+     */
+    public static HuffmanBlockContainer encode(CharSequence text, HuffmanEncoder encoder) {
+        return encode(text, encoder, DEFAULT_BLOCK_CHARS, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * This method is responsible to encode a text in blocks of the given size, encoding the blocks in parallel. Letters
+     * without a code are skipped, the same as HuffmanEncoder.encode does.
+     * @param text -- It represents the text that needs to be encoded
+     * @param encoder -- It represents the compiled codes to encode with
+     * @param blockChars -- It represents how many chars of the text go into each block
+     * @param pool -- It represents the pool that runs the block tasks
+     * @return - returns the encoded container
+     */
+    public static HuffmanBlockContainer encode(CharSequence text, HuffmanEncoder encoder, int blockChars, ForkJoinPool pool) {
+        if (blockChars < 1) {
+            throw new IllegalArgumentException("blockChars must be positive: " + blockChars);
+        }
+        int blockCount = (int) (((long) text.length() + blockChars - 1) / blockChars);
+        PackedBinarySequence[] blocks = new PackedBinarySequence[blockCount];
+        int[] letters = new int[blockCount];
+        pool.invoke(new EncodeBlocks(text, encoder, blockChars, blocks, letters, 0, blockCount));
+
+        long totalBits = 0;
+        for (PackedBinarySequence block : blocks) {
+            totalBits += block.size();
+        }
+        PackedBitWriter writer = new PackedBitWriter(totalBits);
+        long[] offsets = new long[blockCount + 1];
+        for (int i = 0; i < blockCount; i++) {
+            offsets[i] = writer.size();
+            writer.write(blocks[i]); // a shifted copy, far cheaper than the encoding that produced it
+            blocks[i] = null;
+        }
+        offsets[blockCount] = writer.size();
+        return new HuffmanBlockContainer(writer.toSequence(), offsets, letters);
+    }
+
+    /**
+     * This method is responsible to decode every block using the common pool.
+     * @param decoder -- It represents the compiled tree matching the codes used for encoding
+     * @return - returns the decoded text
+     */
+    public String decode(HuffmanTableDecoder decoder) {
+        return decode(decoder, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * This method is responsible to decode the blocks in parallel, each one straight into its place in the output.
+     * @param decoder -- It represents the compiled tree matching the codes used for encoding
+     * @param pool -- It represents the pool that runs the block tasks
+     * @return - returns the decoded text
+     */
+    public String decode(HuffmanTableDecoder decoder, ForkJoinPool pool) {
+        if (textLength > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("the text of " + textLength + " letters does not fit in a string");
+        }
+        char[] out = new char[(int) textLength];
+        int[] starts = new int[letters.length];
+        for (int i = 1; i < letters.length; i++) {
+            starts[i] = starts[i - 1] + letters[i - 1];
+        }
+        pool.invoke(new DecodeBlocks(decoder, out, starts, 0, letters.length));
+        return new String(out);
+    }
+
+    /**
+     * This method is responsible to decode a single block.
+     * @param decoder -- It represents the compiled tree matching the codes used for encoding
+     * @param block -- It represents the index of the block
+     * @return - returns the text of the block
+     */
+    public String decodeBlock(HuffmanTableDecoder decoder, int block) {
+        char[] out = new char[letters[block]];
+        decodeBlock(decoder, block, out, 0);
+        return new String(out);
+    }
+
+    /**
+     * This method is responsible to decode a block into its part of an array and check it against the index. The
+     * letters never go past the part the index sets aside for the block, so a corrupt block can't overwrite the next.
+     * @param decoder -- It represents the compiled tree matching the codes used for encoding
+     * @param block -- It represents the index of the block
+     * @param out -- It represents the array that receives the letters
+     * @param offset -- It represents where the first letter of the block goes
+     */
+    private void decodeBlock(HuffmanTableDecoder decoder, int block, char[] out, int offset) {
+        int decoded;
+        try {
+            decoded = decoder.decode(bits, offsets[block], offsets[block + 1], out, offset, offset + letters[block]);
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("block " + block + " decoded to more than " + letters[block] + " letters");
+        }
+        if (decoded != letters[block]) {
+            throw new IllegalArgumentException("block " + block + " decoded to " + decoded + " letters instead of " + letters[block]);
+        }
+    }
+
+    /**
+     * This method is responsible to return the number of blocks.
+     * @return - returns the number of blocks
+     */
+    public int getBlockCount() {
+        return letters.length;
+    }
+
+    /**
+     * This method is responsible to return the position of the first bit of a block.
+     * @param block -- It represents the index of the block
+     * @return - returns the bit offset of the block
+     */
+    public long getBlockOffset(int block) {
+        return offsets[block];
+    }
+
+    /**
+     * This method is responsible to return the number of letters a block decodes to.
+     * @param block -- It represents the index of the block
+     * @return - returns the decoded length of the block
+     */
+    public int getBlockLength(int block) {
+        return letters[block];
+    }
+
+    /**
+     * This method is responsible to return the number of letters in all blocks together.
+     * @return - returns the decoded length of the text
+     */
+    public long getTextLength() {
+        return textLength;
+    }
+
+    /**
+     * This method is responsible to return the bits of every block one after the other.
+     * @return - returns the encoded bits
+     */
+    public PackedBinarySequence getBits() {
+        return bits;
+    }
+
+    /**
+     * This method is responsible to write the header, the index and the bits to a stream.
+     * @param out -- It represents the stream that receives the bytes
+     * @throws IOException -- if the stream can't be written
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(letters.length);
+        for (int i = 0; i < letters.length; i++) {
+            data.writeLong(offsets[i]);
+            data.writeInt(letters[i]);
+        }
+        bits.writeTo(data);
+        data.flush();
+    }
+
+    /**
+     * This method is responsible to write the container to a file.
+     * @param filename -- It represents the name of the file
+     */
+    public void writeToFile(String filename) {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(Paths.get(filename)))) {
+            writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * This method is responsible to read a container from a stream, checking that the index fits the bits.
+     * @param in -- It represents the stream holding the bytes, read until its end
+     * @return - returns the container that was read
+     * @throws IOException -- if the stream can't be read or does not hold a container
+     */
+    public static HuffmanBlockContainer readFrom(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("not a Huffman block container");
+        }
+        int blockCount = data.readInt();
+        if (blockCount < 0) {
+            throw new IOException("negative block count " + blockCount);
+        }
+        long[] offsets = new long[blockCount + 1];
+        int[] letters = new int[blockCount];
+        for (int i = 0; i < blockCount; i++) {
+            offsets[i] = data.readLong();
+            letters[i] = data.readInt();
+        }
+        PackedBinarySequence bits = PackedBinarySequence.readFrom(data);
+        offsets[blockCount] = bits.size();
+        long previous = 0;
+        for (int i = 0; i <= blockCount; i++) {
+            if (offsets[i] < previous || (i < blockCount && letters[i] < 0)) {
+                throw new IOException("the index of block " + i + " does not fit the bits");
+            }
+            previous = offsets[i];
+        }
+        return new HuffmanBlockContainer(bits, offsets, letters);
+    }
+
+    /**
+     * This method is responsible to read a container from a file.
+     * @param filename -- It represents the name of the file
+     * @return - returns the container that was read
+     */
+    public static HuffmanBlockContainer readFromFile(String filename) {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(Paths.get(filename)))) {
+            return readFrom(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+
+    // The below code represents the fork join tasks that spread the blocks across the cores
+
+    /**
+     * This class represents the encoding of a range of blocks.
+     */
+    private static class EncodeBlocks extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final CharSequence text;
+        private final HuffmanEncoder encoder;
+        private final int blockChars;
+        private final PackedBinarySequence[] blocks;
+        private final int[] letters;
+        private final int start;
+        private final int end;
+
+        /**
+         * This constructor is responsible to create a task for the blocks from start to end.
+         * @param text -- It represents the text to encode
+         * @param encoder -- It represents the compiled codes to encode with
+         * @param blockChars -- It represents how many chars of the text go into each block
+         * @param blocks -- It represents the array that receives the bits of every block
+         * @param letters -- It represents the array that receives the number of encoded letters of every block
+         * @param start -- It represents the first block of the range
+         * @param end -- It represents the block after the range
+         */
+        private EncodeBlocks(CharSequence text, HuffmanEncoder encoder, int blockChars, PackedBinarySequence[] blocks,
+                             int[] letters, int start, int end) {
+            this.text = text;
+            this.encoder = encoder;
+            this.blockChars = blockChars;
+            this.blocks = blocks;
+            this.letters = letters;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start == 1) {
+                int from = start * blockChars;
+                int to = (int) Math.min((long) from + blockChars, text.length());
+                CharSequence block = text.subSequence(from, to);
+                PackedBitWriter writer = new PackedBitWriter(encoder.encodedBitLength(block));
+                letters[start] = encoder.encode(block, writer);
+                blocks[start] = writer.toSequence();
+                return;
+            }
+            if (end - start > 1) {
+                int middle = (start + end) >>> 1;
+                invokeAll(new EncodeBlocks(text, encoder, blockChars, blocks, letters, start, middle),
+                        new EncodeBlocks(text, encoder, blockChars, blocks, letters, middle, end));
+            }
+        }
+    }
+
+    /**
+     * This class represents the decoding of a range of blocks.
+     */
+    private class DecodeBlocks extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final HuffmanTableDecoder decoder;
+        private final char[] out;
+        private final int[] starts;
+        private final int start;
+        private final int end;
+
+        /**
+         * This constructor is responsible to create a task for the blocks from start to end.
+         * @param decoder -- It represents the compiled tree matching the codes used for encoding
+         * @param out -- It represents the array that receives the text
+         * @param starts -- It represents where the first letter of every block goes
+         * @param start -- It represents the first block of the range
+         * @param end -- It represents the block after the range
+         */
+        private DecodeBlocks(HuffmanTableDecoder decoder, char[] out, int[] starts, int start, int end) {
+            this.decoder = decoder;
+            this.out = out;
+            this.starts = starts;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start == 1) {
+                decodeBlock(decoder, start, out, starts[start]);
+                return;
+            }
+            if (end - start > 1) {
+                int middle = (start + end) >>> 1;
+                invokeAll(new DecodeBlocks(decoder, out, starts, start, middle), new DecodeBlocks(decoder, out, starts, middle, end));
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+
+public class HuffmanBlockContainerTester {
+    public static void main(String[] args) throws IOException {
+        String original = "Once upon a midnight dreary, while I pondered, weak and weary,\n" +
+                "Over many a quaint and curious volume of forgotten lore—\n" +
+                "            Only this and nothing more.\"";
+        StringBuilder big = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            big.append(original).append(i);
+        }
+        CanonicalHuffmanCode code = HuffmanCodeBookBuilder.buildCode(HuffmanCodeBookBuilder.countFrequencies(big));
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        /////////////////////////////////////////////////
+        // Test 1: blocks are stitched back in order and hold the same bits as encoding in one piece
+        /////////////////////////////////////////////////
+        HuffmanBlockContainer container = HuffmanBlockContainer.encode(big, code.toEncoder(), 1000, pool);
+        System.out.println(container.getBlockCount());                 // 82
+        System.out.println(container.getTextLength() == big.length()); // true
+        System.out.println(container.getBits().toString().equals(code.toEncoder().encode(big).toString()));   // true
+        System.out.println(container.decode(code.toDecoder(), pool).equals(big.toString()));  // true
+        System.out.println(container.decodeBlock(code.toDecoder(), 1).equals(big.substring(1000, 2000)));    // true
+
+        /////////////////////////////////////////////////
+        // Test 2: the container survives a round trip through bytes
+        /////////////////////////////////////////////////
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        container.writeTo(bytes);
+        HuffmanBlockContainer read = HuffmanBlockContainer.readFrom(new ByteArrayInputStream(bytes.toByteArray()));
+        System.out.println(read.getBlockOffset(64) == container.getBlockOffset(64) && read.getBlockLength(64) == 1000);   // true
+        System.out.println(read.decode(code.toDecoder()).equals(big.toString()));   // true
+
+        /////////////////////////////////////////////////
+        // Test 3: letters without a code are not counted in the block lengths
+        /////////////////////////////////////////////////
+        HuffmanCodeBook book = new HuffmanCodeBook();
+        book.addSequence('a', new BinarySequence("0"));
+        book.addSequence('b', new BinarySequence("1"));
+        HuffmanBlockContainer small = HuffmanBlockContainer.encode("abxab", book.compile(), 2, pool);
+        System.out.println(small.getBlockLength(1));                   // 1
+        System.out.println(small.decode(new HuffmanCodeTree(book).compile()));   // abab
+
+        /////////////////////////////////////////////////
+        // Test 4: bytes without the header are rejected
+        /////////////////////////////////////////////////
+        try {
+            HuffmanBlockContainer.readFrom(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}));
+            System.out.println("read");
+        } catch (IOException e) {
+            System.out.println("rejected");                            // rejected
+        }
+        // an index that gives the last block too few letters fails without writing past the block
+        ByteArrayOutputStream smallBytes = new ByteArrayOutputStream();
+        small.writeTo(smallBytes);
+        byte[] corrupt = smallBytes.toByteArray();
+        corrupt[8 + 2 * 12 + 8 + 3] = 0; // the letter count of block 2, which is the last int of the index
+        try {
+            HuffmanBlockContainer.readFrom(new ByteArrayInputStream(corrupt)).decode(new HuffmanCodeTree(book).compile());
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());                        // block 2 decoded to more than 0 letters
+        }
+        pool.shutdown();
+    }
+}
+/*
+82
+true
+true
+true
+true
+true
+true
+1
+abab
+rejected
+block 2 decoded to more than 0 letters
+ */
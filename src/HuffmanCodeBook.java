@@ -1,3 +1,5 @@
+import java.util.Arrays;
+
 /**
  * Project 3
  * Author: Nitish Kumar Yarlagadda
@@ -10,46 +12,37 @@ public class HuffmanCodeBook {
      * binary sequence for each letter.
      */
 
-    private BinaryTreeNode root;
+    private final CharIndex index; // gives every letter in the codebook a slot in the sequences array
+    private BinarySequence[] sequences; // sequences[slot] is the binary sequence of the letter in that slot
+    private volatile char[] sortedChars; // the letters in increasing order, null until needed after a change
+    private HuffmanCodecCache.Fingerprint fingerprint; // the hash of every code, null until needed after a change
 
     /**
      * This constructor is a 0 argument constructor that is responsible to create a new HuffmanCodeBook objects that
      * contains no letters/sequences.
      */
     public HuffmanCodeBook(){
-        this.root = null; // This constructor initializes an empty HuffmanCodeBook having no letters/sequences
+        this.index = new CharIndex(); // This constructor initializes an empty HuffmanCodeBook having no letters/sequences
+        this.sequences = new BinarySequence[16];
     }
 
     /**
-     * This method is responsible to add a given character/letter and binary sequence into the codebook.
+     * This method is responsible to add a given character/letter and binary sequence into the codebook. If the letter
+     * is already in the codebook the sequence it was first added with is kept.
      * @param c -- It represents the character that needs to be added in the codebook
      * @param seq -- It represents the binary sequence associated with the character that needs to be added in the codebook
      */
     public void addSequence(char c, BinarySequence seq){
-        root = addSequenceHelper(c,seq,root);
-    }
-
-    /**
-     * This method is a recursive helper method for addSequence that is responsible to add a character and its associated
-     * binary sequence to the binary tree.
-     * @param c -- It represents the character that needs to be added in the codebook
-     * @param seq -- It represents the binary sequence associated with the character that needs to be added in the codebook
-     * @param rootNode -- It represents the current root node
-     * @return - returns the updated root node after adding to the binary tree
-     */
-    private BinaryTreeNode addSequenceHelper(char c, BinarySequence seq, BinaryTreeNode rootNode){
-        if(rootNode == null){
-            return new BinaryTreeNode(c,seq); // Creating a new node with the provided character and binary sequence if the node is null
+        if(index.contains(c)){
+            return; // the letter already has a sequence and it is not replaced
         }
-        else if(c < rootNode.storeChar) {
-            // Adding the character to the left child subtree if the provided character is smaller than the present root node character
-            rootNode.leftChild = addSequenceHelper(c,seq,rootNode.leftChild);
+        int slot = index.add(c);
+        if(slot == sequences.length){
+            sequences = Arrays.copyOf(sequences, slot * 2); // growing the sequences array when every slot is used
         }
-        else if(c > rootNode.storeChar){
-            // Adding the character to the right child subtree if the provided character is greater than the present root node character
-            rootNode.rightChild = addSequenceHelper(c,seq,rootNode.rightChild);
-        }
-        return rootNode;
+        sequences[slot] = seq;
+        sortedChars = null; // the new letter has to be sorted in before the next loop
+        fingerprint = null;
     }
 
     /**
@@ -58,31 +51,7 @@ public class HuffmanCodeBook {
      * @return - returns true if the codebook contains the given letter otherwise false
      */
     public boolean contains(char letter){
-         return containsHelper(letter,root);
-    }
-
-    /**
-     * This method is a recursive helper method for contains function that is responsible to check if the given letter
-     * is present in the binary tree or not.
-     * @param letter -- It represents the letters that needs to be checked in the codebook
-     * @param rootNode -- It represents the current root node
-     * @return - returns true if the letter is present in the binary tree otherwise false
-     */
-    private boolean containsHelper(char letter,BinaryTreeNode rootNode){
-        if(rootNode == null){
-            return false; // returning false if the root node is null indicating that given letter is not present in the tree
-        }
-        if(letter < rootNode.storeChar){
-            // searching the letter in the left child subtree if the provided letter is smaller than the present root node character
-            return containsHelper(letter,rootNode.leftChild);
-        }
-        else if(letter > rootNode.storeChar){
-            // searching the letter in the right child subtree if the provided letter is greater than the present root node character
-            return containsHelper(letter,rootNode.rightChild);
-        }
-        else{
-            return true; // returning true if the letter is equal to the root node character indicating that the given letter is found in the tree
-        }
+         return index.contains(letter);
     }
 
     /**
@@ -92,8 +61,8 @@ public class HuffmanCodeBook {
      * @return - returns true if the codebook contains all the letters given by the input string otherwise false
      */
     public boolean containsAll(String letters){
-        for(char charIterate : letters.toCharArray()){
-            if(!contains(charIterate)){
+        for(int i = 0; i < letters.length(); i++){
+            if(!index.contains(letters.charAt(i))){
                 return false; // returning false if the letters are not found in the codebook
             }
         }
@@ -108,31 +77,16 @@ public class HuffmanCodeBook {
      * @return - returns the binary sequence associated with the given letter otherwise returns null
      */
     public BinarySequence getSequence(char c){
-        return getSequenceHelper(c,root);
+        int slot = index.indexOf(c);
+        return slot < 0 ? null : sequences[slot]; // returning null if the letter was never added
     }
 
     /**
-     * This method is a recursive helper method for getSequence that is responsible to retrieve the binary sequence
-     * associated with the given letter in the binary tree.
-     * @param c -- It represents the letter for which the binary sequence is returned
-     * @param rootNode --  It represents the current root node
-     * @return - returns the binary sequence associated with the given letter otherwise returns null
+     * This method is responsible to return the number of letters in the codebook.
+     * @return - returns the number of letters that have a sequence
      */
-    private BinarySequence getSequenceHelper(char c,BinaryTreeNode rootNode){
-        if(rootNode == null){
-            return null; // returning null if root node is null indicating that provided character is not present in the tree
-        }
-        if(c < rootNode.storeChar){
-            // searching the character in the left child subtree if the provided character (c) is smaller than the present root node character
-            return getSequenceHelper(c,rootNode.leftChild);
-        }
-        else if(c > rootNode.storeChar){
-            // searching the character in the right child subtree if the provided character (c) is greater than the present root node character
-            return getSequenceHelper(c,rootNode.rightChild);
-        }
-        else{
-            return rootNode.binSequence; // returning the binary sequence of the given character if the character (c) matches the root node character
-        }
+    public int size(){
+        return index.size();
     }
 
     /**
@@ -142,82 +96,91 @@ public class HuffmanCodeBook {
      * @return - returns the encoded binary sequence
      */
     public BinarySequence encode(String s){
+        HuffmanMetrics metrics = HuffmanMetrics.active(); // null unless metrics were enabled
+        long started = metrics == null ? 0 : System.nanoTime();
+        int dropped = 0;
         BinarySequence finalEncode = new BinarySequence();
-        for(char charIterate : s.toCharArray()){
-            BinarySequence newSequence = getSequence(charIterate); // retrieving the binary sequence for the current character
+        for(int i = 0; i < s.length(); i++){
+            BinarySequence newSequence = getSequence(s.charAt(i)); // retrieving the binary sequence for the current character
             if(newSequence != null){
                 finalEncode.append(newSequence); // Appending the encoded sequence if the binary sequence is found
+            } else {
+                dropped++;
             }
         }
+        if(metrics != null){
+            metrics.recordEncode(s.length(), dropped, finalEncode.size(), System.nanoTime() - started);
+        }
         return finalEncode; // returning the completed encoded binary sequence
     }
 
 
 
 
-    // The below design is an interface which is written in order to loop the character in an efficient manner
-
     /**
-     * This represents an interface which is designed to loop over the characters in the codebook through an efficient
-     * manner
+     * This method is responsible to return the fingerprint HuffmanCodecCache keys the codebook by. It is computed once
+     * and kept until the next addSequence, so looking the codebook up again does not hash every code again. Changing
+     * a BinarySequence after adding it is not noticed.
+     * @return - returns the fingerprint of the current codes
      */
-    public interface CharacterEfficientLooper{
-       void charLoop(char storeChar); // defining an abstract method within the interface that a custom implementation for the looping of the characters
+    public HuffmanCodecCache.Fingerprint getFingerprint(){
+        HuffmanCodecCache.Fingerprint known = fingerprint;
+        if(known == null){
+            known = HuffmanCodecCache.computeFingerprint(this);
+            fingerprint = known;
+        }
+        return known;
     }
 
 
+
+
     /**
-     * This method is responsible to loop through the characters in the huffman codebook and perform a specified action
-     * according to the implementation defined in the interface.
-     * @param looper - It represents the action that needs to be performed for every character in the codebook
+     * This method is responsible to compile the codebook into an encoder that keeps every code as primitive bits and
+     * packs the output 64 bits at a time. The encoder is a snapshot, so later calls to addSequence are not seen by it.
+     * @return - returns the compiled encoder for the current codebook
      */
-    public void characterLooper(CharacterEfficientLooper looper){
-        characterLooper(looper,root); // Taking an instance of the interface looper and calling the private helper function
+    public HuffmanEncoder compile(){
+        return new HuffmanEncoder(this);
     }
 
-
     /**
-     * This is a recursive helper method for characterLooper that is responsible to perform a specified action on every
-     * character in the binary tree
-     * @param looper -- It represents the action that needs to be performed for every character in the codebook
-     * @param rootNode -- It represents the current root node
+     * This method is responsible to freeze the codebook into an immutable encoder and decoder pair that any number of
+     * threads can share. Later calls to addSequence are not seen by it.
+     * @return - returns the frozen codec for the current codebook
      */
-    private void characterLooper(CharacterEfficientLooper looper,BinaryTreeNode rootNode){
-        // Check if the root node is not null inorder to initiate the traversal of looping
-        if(rootNode != null){
-            characterLooper(looper,rootNode.leftChild); // Recursive traversing through the left subtree
-            looper.charLoop(rootNode.storeChar); // implementing the interface method to perform the action done in huffman code tree
-            characterLooper(looper,rootNode.rightChild); // Recursive traversing through the right subtree
-        }
+    public HuffmanCodec freeze(){
+        return HuffmanCodec.of(this);
     }
 
 
 
-    // The below code represents the implementation of the Binary Tree Node that will be implemented in the binary search tree
+
+    // The below design is an interface which is written in order to loop the character in an efficient manner
 
     /**
-     * This class represents the node in the binary tree for storing the characters and their associated binary sequence
-     * in the HuffmanCodeBook
+     * This represents an interface which is designed to loop over the characters in the codebook through an efficient
+     * manner
      */
-    private static class BinaryTreeNode{
-        private final char storeChar; // represents the character in the node
-        private final BinarySequence binSequence; // represents the binary sequence associated with the character
-        private BinaryTreeNode leftChild; // represents the left child node in the binary tree
-        private BinaryTreeNode rightChild; // represents the right child node in the binary tree
-
-        /**
-         * This constructor is responsible to construct a new BinaryTreeNode with the given character and its associated
-         * binary sequence and initializes the left and right child nodes to be null.
-         * @param storeChar -- It represents the character to be stored in the tree node
-         * @param sequence -- It represents the binary sequence associated with the given character
-         */
-        private BinaryTreeNode(char storeChar,BinarySequence sequence){
-            this.storeChar=storeChar;
-            this.binSequence =sequence;
-            this.leftChild=null;
-            this.rightChild=null;
-        }
+    public interface CharacterEfficientLooper{
+       void charLoop(char storeChar); // defining an abstract method within the interface that a custom implementation for the looping of the characters
+    }
+
 
+    /**
+     * This method is responsible to loop through the characters in the huffman codebook in increasing order and perform
+     * a specified action according to the implementation defined in the interface.
+     * @param looper - It represents the action that needs to be performed for every character in the codebook
+     */
+    public void characterLooper(CharacterEfficientLooper looper){
+        char[] sorted = sortedChars;
+        if(sorted == null){
+            sorted = index.sortedChars(); // sorted once and reused until the next addSequence
+            sortedChars = sorted;
+        }
+        for(char storeChar : sorted){
+            looper.charLoop(storeChar); // implementing the interface method to perform the action done in huffman code tree
+        }
     }
 
 }
\ No newline at end of file
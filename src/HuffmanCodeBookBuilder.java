@@ -0,0 +1,601 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Project 3
+ * Author: Nitish Kumar Yarlagadda
+ * HuffmanCodeBookBuilder class
+ */
+public class HuffmanCodeBookBuilder {
+
+    /**
+     * The HuffmanCodeBookBuilder class builds an optimal prefix code for a piece of text. It first counts how often
+     * every char occurs, splitting the text across the cores of a ForkJoinPool, then runs the Huffman algorithm on the
+     * counts and hands back the result as a CanonicalHuffmanCode so it can become a HuffmanCodeBook or a HuffmanCodeTree.
+     * Frequency tables are long arrays of size 65536, indexed by char.
+     */
+
+    public static final int ALPHABET_SIZE = 1 << 16;
+    private static final int MIN_CHUNK = 1 << 20; // smaller pieces are not worth the cost of merging another table
+    private static final int READ_BLOCK = 1 << 20;
+    private static final int COPY_BLOCK = 1 << 12; // chars copied out of a String at a time for the vector loops
+
+    /**
+     * This constructor is private since the class only has static methods.
+     */
+    private HuffmanCodeBookBuilder() {
+    }
+
+    /**
+     * This method is responsible to build a codebook with an optimal canonical code for the given text.
+     * @param text -- It represents the text the code should compress well
+     * @return - returns the new codebook
+     */
+    public static HuffmanCodeBook fromText(CharSequence text) {
+        return buildCode(countFrequencies(text)).toCodeBook();
+    }
+
+    /**
+     * This method is responsible to build a codebook for the given text whose codes are at most maxLength bits long.
+     * @param text -- It represents the text the code should compress well
+     * @param maxLength -- It represents the longest code allowed, between 1 and 64
+     * @return - returns the new codebook
+     */
+    public static HuffmanCodeBook fromText(CharSequence text, int maxLength) {
+        return buildCode(countFrequencies(text), maxLength).toCodeBook();
+    }
+
+    /**
+     * This method is responsible to build a codebook with an optimal canonical code for a UTF-8 text file.
+     * @param file -- It represents the file the code should compress well
+     * @return - returns the new codebook
+     */
+    public static HuffmanCodeBook fromFile(Path file) {
+        return buildCode(countFrequencies(file)).toCodeBook();
+    }
+
+    /**
+     * This method is responsible to count how often every char occurs in the text, in parallel on the common pool.
+     * @param text -- It represents the text to count
+     * @return - returns the count of every char, indexed by char
+     */
+    public static long[] countFrequencies(CharSequence text) {
+        return countFrequencies(text, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * This method is responsible to count how often every char occurs in the text, in parallel on the given pool.
+     * @param text -- It represents the text to count
+     * @param pool -- It represents the pool that runs the counting tasks
+     * @return - returns the count of every char, indexed by char
+     */
+    public static long[] countFrequencies(CharSequence text, ForkJoinPool pool) {
+        int chunk = Math.max(MIN_CHUNK, text.length() / (pool.getParallelism() * 4) + 1);
+        return pool.invoke(new TextCount(text, 0, text.length(), chunk));
+    }
+
+    /**
+     * This method is responsible to count how often every char occurs in a UTF-8 file on the common pool.
+     * @param file -- It represents the file to count
+     * @return - returns the count of every char, indexed by char
+     */
+    public static long[] countFrequencies(Path file) {
+        return countFrequencies(file, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * This method is responsible to count how often every char occurs in a UTF-8 file. UTF-8 can be picked up at any
+     * byte that is not a continuation byte, so the file is cut into byte ranges that are decoded and counted
+     * independently, and the file is never loaded into memory as a whole.
+     * @param file -- It represents the file to count
+     * @param pool -- It represents the pool that runs the counting tasks
+     * @return - returns the count of every char, indexed by char
+     */
+    public static long[] countFrequencies(Path file, ForkJoinPool pool) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long chunk = Math.max(MIN_CHUNK, size / (pool.getParallelism() * 4) + 1);
+            return pool.invoke(new FileCount(channel, 0, size, chunk));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * This method is responsible to run the Huffman algorithm on the counts and return the canonical code with the
+     * resulting code lengths. Chars with a count of 0 get no code. Ties are broken by char value, so the same counts
+     * always give the same code.
+     * @param frequencies -- It represents how often every char occurs, indexed by char
+     * @return - returns the optimal canonical code
+     */
+    public static CanonicalHuffmanCode buildCode(long[] frequencies) {
+        return toCode(codeLengths(frequencies));
+    }
+
+    /**
+     * This method is a helper method for both buildCode methods that turns a code length per char into the canonical
+     * code for the chars that have a length.
+     * @param lengths -- It represents the code length of every char, indexed by char, 0 for chars without a code
+     * @return - returns the canonical code with those lengths
+     */
+    private static CanonicalHuffmanCode toCode(int[] lengths) {
+        int used = 0;
+        for (int length : lengths) {
+            used += length > 0 ? 1 : 0;
+        }
+        char[] symbols = new char[used];
+        int[] usedLengths = new int[used];
+        int next = 0;
+        for (int c = 0; c < lengths.length; c++) {
+            if (lengths[c] > 0) {
+                symbols[next] = (char) c;
+                usedLengths[next++] = lengths[c];
+            }
+        }
+        return new CanonicalHuffmanCode(symbols, usedLengths);
+    }
+
+    /**
+     * This method is responsible to compute the optimal code length of every char by repeatedly joining the two
+     * lightest trees.
+     * @param frequencies -- It represents how often every char occurs, indexed by char
+     * @return - returns the code length of every char, 0 for chars that do not occur
+     */
+    public static int[] codeLengths(long[] frequencies) {
+        int[] lengths = huffmanLengths(frequencies);
+        for (int length : lengths) {
+            if (length > CanonicalHuffmanCode.MAX_CODE_LENGTH) {
+                throw new IllegalArgumentException("the optimal code is longer than " + CanonicalHuffmanCode.MAX_CODE_LENGTH + " bits, use a length limited code");
+            }
+        }
+        return lengths;
+    }
+
+    /**
+     * This method is a helper method for codeLengths that runs the Huffman algorithm without checking how long the
+     * codes get, so that the cost of the unlimited code can be reported even when it could not be used.
+     * @param frequencies -- It represents how often every char occurs, indexed by char
+     * @return - returns the code length of every char, 0 for chars that do not occur
+     */
+    private static int[] huffmanLengths(long[] frequencies) {
+        int letters = 0;
+        for (long count : frequencies) {
+            if (count < 0) {
+                throw new IllegalArgumentException("frequencies can't be negative");
+            }
+            letters += count > 0 ? 1 : 0;
+        }
+        if (letters == 0) {
+            throw new IllegalArgumentException("there are no letters to build a code for");
+        }
+        int[] lengths = new int[frequencies.length];
+        if (letters == 1) {
+            for (int c = 0; c < frequencies.length; c++) {
+                lengths[c] = frequencies[c] > 0 ? 1 : 0; // a lone letter still needs one bit per occurrence
+            }
+            return lengths;
+        }
+        // nodes 0 .. frequencies.length - 1 are the letters, joined trees are numbered after them
+        long[] weight = new long[frequencies.length + letters];
+        int[] parent = new int[frequencies.length + letters];
+        PriorityQueue<Integer> queue = new PriorityQueue<>(letters, (a, b) -> weight[a] != weight[b] ? Long.compare(weight[a], weight[b]) : Integer.compare(a, b));
+        for (int c = 0; c < frequencies.length; c++) {
+            weight[c] = frequencies[c];
+            if (frequencies[c] > 0) {
+                queue.add(c);
+            }
+        }
+        int nextNode = frequencies.length;
+        while (queue.size() > 1) {
+            int first = queue.poll();
+            int second = queue.poll();
+            weight[nextNode] = weight[first] + weight[second];
+            parent[first] = nextNode;
+            parent[second] = nextNode;
+            queue.add(nextNode++);
+        }
+        int root = nextNode - 1;
+        int[] depth = new int[weight.length];
+        for (int node = root - 1; node >= 0; node--) {
+            if (node >= frequencies.length || frequencies[node] > 0) {
+                depth[node] = depth[parent[node]] + 1; // parents always have a higher number, so they are done already
+            }
+        }
+        for (int c = 0; c < frequencies.length; c++) {
+            lengths[c] = frequencies[c] > 0 ? depth[c] : 0;
+        }
+        return lengths;
+    }
+
+    /**
+     * This method is responsible to build the best canonical code whose codes are at most maxLength bits long.
+     * @param frequencies -- It represents how often every char occurs, indexed by char
+     * @param maxLength -- It represents the longest code allowed, between 1 and 64
+     * @return - returns the optimal length limited canonical code
+     */
+    public static CanonicalHuffmanCode buildCode(long[] frequencies, int maxLength) {
+        return toCode(codeLengths(frequencies, maxLength));
+    }
+
+    /**
+     * This method is responsible to compute the optimal code lengths that are at most maxLength bits long, using the
+     * package-merge algorithm. Letters are sorted by count, then every level packages neighbouring items of the level
+     * below in pairs and merges the packages back with the letters. The code length of a letter is how many of the
+     * cheapest 2n - 2 items of the last level contain it.
+     * @param frequencies -- It represents how often every char occurs, indexed by char
+     * @param maxLength -- It represents the longest code allowed, between 1 and 64
+     * @return - returns the code length of every char, 0 for chars that do not occur
+     */
+    public static int[] codeLengths(long[] frequencies, int maxLength) {
+        if (maxLength < 1 || maxLength > CanonicalHuffmanCode.MAX_CODE_LENGTH) {
+            throw new IllegalArgumentException("maxLength must be between 1 and " + CanonicalHuffmanCode.MAX_CODE_LENGTH + ": " + maxLength);
+        }
+        int[] unlimited = huffmanLengths(frequencies); // also checks the counts
+        int longest = 0;
+        int letters = 0;
+        for (int length : unlimited) {
+            longest = Math.max(longest, length);
+            letters += length > 0 ? 1 : 0;
+        }
+        if (longest <= maxLength) {
+            return unlimited; // the plain Huffman code already fits, and it is optimal
+        }
+        if (maxLength < 31 && letters > 1 << maxLength) {
+            throw new IllegalArgumentException(letters + " letters do not fit in codes of at most " + maxLength + " bits");
+        }
+        long[] sorted = new long[letters]; // leaves in increasing count, ties broken by char
+        char[] symbolOf = new char[letters];
+        Integer[] byCount = new Integer[letters];
+        int next = 0;
+        for (int c = 0; c < frequencies.length; c++) {
+            if (frequencies[c] > 0) {
+                byCount[next++] = c;
+            }
+        }
+        Arrays.sort(byCount, (a, b) -> frequencies[a] != frequencies[b] ? Long.compare(frequencies[a], frequencies[b]) : Integer.compare(a, b));
+        for (int i = 0; i < letters; i++) {
+            symbolOf[i] = (char) (int) byCount[i];
+            sorted[i] = frequencies[byCount[i]];
+        }
+        // level 0 holds only the leaves, every other level merges the leaves with the packages of the level below.
+        // refs[level][i] >= 0 is leaf number refs[level][i], ~k is the package of items 2k and 2k + 1 of the level below
+        long[][] weights = new long[maxLength][];
+        int[][] refs = new int[maxLength][];
+        weights[0] = sorted.clone();
+        refs[0] = new int[letters];
+        for (int i = 0; i < letters; i++) {
+            refs[0][i] = i;
+        }
+        for (int level = 1; level < maxLength; level++) {
+            long[] below = weights[level - 1];
+            int packages = below.length / 2;
+            weights[level] = new long[letters + packages];
+            refs[level] = new int[letters + packages];
+            int leaf = 0;
+            int pack = 0;
+            for (int out = 0; out < letters + packages; out++) {
+                long packWeight = pack < packages ? below[2 * pack] + below[2 * pack + 1] : Long.MAX_VALUE;
+                if (leaf < letters && sorted[leaf] <= packWeight) {
+                    weights[level][out] = sorted[leaf];
+                    refs[level][out] = leaf++;
+                } else {
+                    weights[level][out] = packWeight;
+                    refs[level][out] = ~pack++;
+                }
+            }
+        }
+        int[] leafLengths = new int[letters];
+        int[] stackLevel = new int[maxLength + 1]; // every expansion goes one level down, so the stack stays short
+        int[] stackItem = new int[stackLevel.length];
+        int top = 0;
+        for (int i = 0; i < 2 * letters - 2; i++) {
+            stackLevel[top] = maxLength - 1;
+            stackItem[top++] = i;
+            while (top > 0) {
+                int level = stackLevel[--top];
+                int ref = refs[level][stackItem[top]];
+                if (ref >= 0) {
+                    leafLengths[ref]++; // every chosen item that holds a leaf adds one bit to its code
+                } else {
+                    stackLevel[top] = level - 1;
+                    stackItem[top++] = 2 * ~ref;
+                    stackLevel[top] = level - 1;
+                    stackItem[top++] = 2 * ~ref + 1;
+                }
+            }
+        }
+        int[] lengths = new int[frequencies.length];
+        for (int i = 0; i < letters; i++) {
+            lengths[symbolOf[i]] = leafLengths[i];
+        }
+        return lengths;
+    }
+
+    /**
+     * This method is responsible to build a length limited code and report how much it costs compared to the plain
+     * Huffman code for the same counts.
+     * @param frequencies -- It represents how often every char occurs, indexed by char
+     * @param maxLength -- It represents the longest code allowed, between 1 and 64
+     * @return - returns the limited code together with the encoded sizes of both codes
+     */
+    public static LengthLimitReport compareLengthLimit(long[] frequencies, int maxLength) {
+        int[] unlimited = huffmanLengths(frequencies);
+        long unlimitedBits = 0;
+        int unlimitedMax = 0;
+        for (int c = 0; c < unlimited.length; c++) {
+            unlimitedBits += frequencies[c] * unlimited[c];
+            unlimitedMax = Math.max(unlimitedMax, unlimited[c]);
+        }
+        CanonicalHuffmanCode limited = buildCode(frequencies, maxLength);
+        return new LengthLimitReport(limited, limited.encodedBits(frequencies), unlimitedBits, unlimitedMax);
+    }
+
+
+
+    // The below code represents the result of comparing a length limited code with the plain Huffman code
+
+    /**
+     * This class represents the cost of limiting the code length for a set of counts.
+     */
+    public static class LengthLimitReport {
+        private final CanonicalHuffmanCode code;
+        private final long limitedBits;
+        private final long unlimitedBits;
+        private final int unlimitedMaxLength;
+
+        /**
+         * This constructor is responsible to store the result of a comparison.
+         * @param code -- It represents the length limited code
+         * @param limitedBits -- It represents the encoded size with the limited code
+         * @param unlimitedBits -- It represents the encoded size with the plain Huffman code
+         * @param unlimitedMaxLength -- It represents the longest code of the plain Huffman code
+         */
+        private LengthLimitReport(CanonicalHuffmanCode code, long limitedBits, long unlimitedBits, int unlimitedMaxLength) {
+            this.code = code;
+            this.limitedBits = limitedBits;
+            this.unlimitedBits = unlimitedBits;
+            this.unlimitedMaxLength = unlimitedMaxLength;
+        }
+
+        /**
+         * This method is responsible to return the length limited code.
+         * @return - returns the limited code
+         */
+        public CanonicalHuffmanCode getCode() {
+            return code;
+        }
+
+        /**
+         * This method is responsible to return the encoded size of the counted text with the limited code.
+         * @return - returns the size in bits
+         */
+        public long getLimitedBits() {
+            return limitedBits;
+        }
+
+        /**
+         * This method is responsible to return the encoded size of the counted text with the plain Huffman code.
+         * @return - returns the size in bits
+         */
+        public long getUnlimitedBits() {
+            return unlimitedBits;
+        }
+
+        /**
+         * This method is responsible to return the longest code the plain Huffman code would have used.
+         * @return - returns the length in bits
+         */
+        public int getUnlimitedMaxLength() {
+            return unlimitedMaxLength;
+        }
+
+        /**
+         * This method is responsible to return how much larger the output gets because of the limit.
+         * @return - returns the extra size as a fraction of the unlimited size, 0.01 meaning one percent
+         */
+        public double getOverhead() {
+            return unlimitedBits == 0 ? 0.0 : (double) (limitedBits - unlimitedBits) / unlimitedBits;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("max length %d (unlimited %d), %d bits vs %d bits, overhead %.4f%%",
+                    code.getMaxLength(), unlimitedMaxLength, limitedBits, unlimitedBits, getOverhead() * 100);
+        }
+    }
+
+
+
+    // The below code represents the fork join tasks that split the counting across the cores
+
+    /**
+     * This class represents the counting of one range of a CharSequence.
+     */
+    private static class TextCount extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final CharSequence text;
+        private final int start;
+        private final int end;
+        private final int chunk;
+
+        /**
+         * This constructor is responsible to create a task for the chars from start to end.
+         * @param text -- It represents the text to count
+         * @param start -- It represents the first char of the range
+         * @param end -- It represents the char after the range
+         * @param chunk -- It represents the largest range counted without splitting
+         */
+        private TextCount(CharSequence text, int start, int end, int chunk) {
+            this.text = text;
+            this.start = start;
+            this.end = end;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (end - start <= chunk) {
+                int[] counts = new int[ALPHABET_SIZE]; // a chunk is below 2^31 chars so int counts can't overflow
+                if (HuffmanVectorSupport.isEnabled() && text instanceof String) {
+                    char[] block = new char[Math.min(COPY_BLOCK, end - start)];
+                    for (int from = start; from < end; from += block.length) {
+                        int to = Math.min(end, from + block.length);
+                        ((String) text).getChars(from, to, block, 0);
+                        HuffmanVectorSupport.countFrequencies(block, 0, to - from, counts);
+                    }
+                } else {
+                    for (int i = start; i < end; i++) {
+                        counts[text.charAt(i)]++;
+                    }
+                }
+                long[] result = new long[ALPHABET_SIZE];
+                for (int c = 0; c < ALPHABET_SIZE; c++) {
+                    result[c] = counts[c];
+                }
+                return result;
+            }
+            int middle = (start + end) >>> 1;
+            TextCount left = new TextCount(text, start, middle, chunk);
+            left.fork();
+            long[] right = new TextCount(text, middle, end, chunk).compute();
+            return add(left.join(), right);
+        }
+    }
+
+    /**
+     * This class represents the counting of one byte range of a UTF-8 file.
+     */
+    private static class FileCount extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+        private final long chunk;
+
+        /**
+         * This constructor is responsible to create a task for the bytes from start to end.
+         * @param channel -- It represents the open file
+         * @param start -- It represents the first byte of the range
+         * @param end -- It represents the byte after the range
+         * @param chunk -- It represents the largest range counted without splitting
+         */
+        private FileCount(FileChannel channel, long start, long end, long chunk) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (end - start <= chunk) {
+                try {
+                    return countRange(channel, charStart(channel, start), charStart(channel, end));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            long middle = start + (end - start) / 2;
+            FileCount left = new FileCount(channel, start, middle, chunk);
+            left.fork();
+            long[] right = new FileCount(channel, middle, end, chunk).compute();
+            return add(left.join(), right);
+        }
+    }
+
+    /**
+     * This method is responsible to move a byte position forward to the start of the next UTF-8 character. Both tasks
+     * on either side of a split move the same position the same way, so every character is counted exactly once.
+     * @param channel -- It represents the open file
+     * @param position -- It represents the byte position to move
+     * @return - returns the first position at or after the given one that is not a continuation byte
+     * @throws IOException -- if the file can't be read
+     */
+    private static long charStart(FileChannel channel, long position) throws IOException {
+        ByteBuffer one = ByteBuffer.allocate(1);
+        long size = channel.size();
+        for (int step = 0; step < 4 && position < size; step++) {
+            one.clear();
+            channel.read(one, position);
+            if ((one.get(0) & 0xC0) != 0x80) {
+                return position; // not a continuation byte, so a character starts here
+            }
+            position++;
+        }
+        return Math.min(position, size);
+    }
+
+    /**
+     * This method is responsible to decode the bytes of one range as UTF-8 and count the chars.
+     * @param channel -- It represents the open file
+     * @param start -- It represents the first byte of the range
+     * @param end -- It represents the byte after the range
+     * @return - returns the count of every char in the range
+     * @throws IOException -- if the file can't be read
+     */
+    private static long[] countRange(FileChannel channel, long start, long end) throws IOException {
+        long[] counts = new long[ALPHABET_SIZE];
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        ByteBuffer bytes = ByteBuffer.allocate(READ_BLOCK);
+        CharBuffer chars = CharBuffer.allocate(READ_BLOCK);
+        long position = start;
+        boolean done = false;
+        while (!done) {
+            int wanted = (int) Math.min(bytes.remaining(), end - position);
+            ByteBuffer window = bytes.duplicate();
+            window.limit(window.position() + wanted);
+            int read = wanted == 0 ? 0 : channel.read(window, position);
+            if (read < 0) {
+                read = 0;
+            }
+            position += read;
+            bytes.position(bytes.position() + read);
+            done = position >= end || read == 0;
+            bytes.flip();
+            CoderResult result = decoder.decode(bytes, chars, done);
+            if (result.isError()) {
+                result.throwException();
+            }
+            if (done) {
+                decoder.flush(chars);
+            }
+            chars.flip();
+            while (chars.hasRemaining()) {
+                counts[chars.get()]++;
+            }
+            chars.clear();
+            bytes.compact(); // keeps a character cut off at the end of the block for the next round
+        }
+        return counts;
+    }
+
+    /**
+     * This method is responsible to add the second table of counts into the first.
+     * @param into -- It represents the table that receives the sum
+     * @param from -- It represents the table that is added
+     * @return - returns the first table
+     */
+    private static long[] add(long[] into, long[] from) {
+        for (int c = 0; c < into.length; c++) {
+            into[c] += from[c];
+        }
+        return into;
+    }
+}
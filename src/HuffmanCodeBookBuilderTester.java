@@ -0,0 +1,136 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class HuffmanCodeBookBuilderTester {
+    public static void main(String[] args) throws IOException {
+        /////////////////////////////////////////////////
+        // Test 1: counting
+        /////////////////////////////////////////////////
+        long[] counts = HuffmanCodeBookBuilder.countFrequencies("abracadabra");
+        System.out.println(counts['a'] + " " + counts['b'] + " " + counts['r'] + " " + counts['c'] + " " + counts['d']);   // 5 2 2 1 1
+
+        /////////////////////////////////////////////////
+        // Test 2: code lengths and canonical codes
+        // a=5 b=2 r=2 c=1 d=1 gives lengths 1, 3, 3, 3, 3 with ties broken by char
+        /////////////////////////////////////////////////
+        CanonicalHuffmanCode code = HuffmanCodeBookBuilder.buildCode(counts);
+        for (int i = 0; i < code.size(); i++) {
+            System.out.println(code.getSymbol(i) + " " + code.getSequence(i));
+        }
+        // a 0
+        // b 100
+        // c 101
+        // d 110
+        // r 111
+        System.out.println(code.encodedBits(counts));                  // 23
+
+        /////////////////////////////////////////////////
+        // Test 3: the code works with the codebook and the tree
+        /////////////////////////////////////////////////
+        String original = "Once upon a midnight dreary, while I pondered, weak and weary,\n" +
+                "Over many a quaint and curious volume of forgotten lore—\n" +
+                "    While I nodded, nearly napping, suddenly there came a tapping,\n" +
+                "As of some one gently rapping, rapping at my chamber door.\n" +
+                "\"'Tis some visitor,\" I muttered, \"tapping at my chamber door—\n" +
+                "            Only this and nothing more.\"";
+        HuffmanCodeBook book = HuffmanCodeBookBuilder.fromText(original);
+        HuffmanCodeTree tree = new HuffmanCodeTree(book);
+        System.out.println(book.containsAll(original));                // true
+        System.out.println(tree.isValid());                            // true
+        System.out.println(original.equals(tree.decode(book.encode(original))));   // true
+        code = HuffmanCodeBookBuilder.buildCode(HuffmanCodeBookBuilder.countFrequencies(original));
+        System.out.println(code.toTree().isValid());                   // true
+        System.out.println(original.equals(code.toDecoder().decode(code.toEncoder().encode(original))));   // true
+        System.out.println(book.encode(original).size() == code.encodedBits(HuffmanCodeBookBuilder.countFrequencies(original)));   // true
+
+        /////////////////////////////////////////////////
+        // Test 4: counting a file gives the same counts as counting the text
+        /////////////////////////////////////////////////
+        StringBuilder big = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            big.append(original).append(" ‽œ");
+        }
+        Path file = Files.createTempFile("huffman", ".txt");
+        Files.write(file, big.toString().getBytes(StandardCharsets.UTF_8));
+        long[] fromFile = HuffmanCodeBookBuilder.countFrequencies(file);
+        long[] fromText = HuffmanCodeBookBuilder.countFrequencies(big);
+        System.out.println(java.util.Arrays.equals(fromFile, fromText));   // true
+        System.out.println(fromFile['‽']);                             // 20000
+        Files.delete(file);
+
+        /////////////////////////////////////////////////
+        // Test 5: length limited codes
+        // fibonacci counts make the plain Huffman code as deep as possible
+        /////////////////////////////////////////////////
+        long[] skewed = new long[HuffmanCodeBookBuilder.ALPHABET_SIZE];
+        long a = 1;
+        long b = 1;
+        for (char c = 'a'; c <= 't'; c++) {
+            skewed[c] = a;
+            long sum = a + b;
+            a = b;
+            b = sum;
+        }
+        System.out.println(HuffmanCodeBookBuilder.buildCode(skewed).getMaxLength());        // 19
+        HuffmanCodeBookBuilder.LengthLimitReport report = HuffmanCodeBookBuilder.compareLengthLimit(skewed, 8);
+        code = report.getCode();
+        System.out.println(code.getMaxLength());                       // 8
+        System.out.println(report.getUnlimitedMaxLength());            // 19
+        System.out.println(code.toTree().isValid());                   // true
+        System.out.println(report.getLimitedBits() > report.getUnlimitedBits());   // true
+        System.out.println(report.getOverhead() < 0.1);                // true
+        // when the limit is not hit the plain Huffman code comes back unchanged
+        report = HuffmanCodeBookBuilder.compareLengthLimit(skewed, 19);
+        System.out.println(report.getLimitedBits() == report.getUnlimitedBits());  // true
+        // one bit under the plain code's longest code
+        report = HuffmanCodeBookBuilder.compareLengthLimit(skewed, 18);
+        System.out.println(report.getCode().getMaxLength());           // 18
+        System.out.println(report.getLimitedBits() - report.getUnlimitedBits());   // 1
+        try {
+            HuffmanCodeBookBuilder.buildCode(skewed, 4);
+            System.out.println("built");
+        } catch (IllegalArgumentException e) {
+            System.out.println("rejected");                            // rejected
+        }
+
+        /////////////////////////////////////////////////
+        // Test 6: over-subscribed lengths are rejected
+        /////////////////////////////////////////////////
+        try {
+            new CanonicalHuffmanCode(new char[]{'a', 'b', 'c'}, new int[]{1, 1, 2});
+            System.out.println("built");
+        } catch (IllegalArgumentException e) {
+            System.out.println("rejected");                            // rejected
+        }
+    }
+}
+/*
+5 2 2 1 1
+a 0
+b 100
+c 101
+d 110
+r 111
+23
+true
+true
+true
+true
+true
+true
+true
+20000
+19
+8
+19
+true
+true
+true
+true
+18
+1
+rejected
+rejected
+ */
@@ -1,3 +1,10 @@
+import java.nio.BufferOverflowException;
+import java.nio.CharBuffer;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
 /**
  * Project 3
  * Author: Nitish Kumar Yarlagadda
@@ -8,9 +15,16 @@ public class HuffmanCodeTree {
     /**
      * The HuffmanCodeTree class uses the node class build and maintain a binary tree that represents a collection of
      * Huffman codes for various letters.
+     *
+     * The tree keeps count of the nodes that make it invalid as put changes it, so isValid does not have to walk the
+     * tree. Nodes changed directly through the HuffmanNode setters after the tree was made are not seen by the counts;
+     * verify walks the whole tree for that case.
      */
 
     private final HuffmanNode root;
+    private int incompleteNodes; // nodes without a letter that are missing a child
+    private int dataInternalNodes; // nodes with a letter that also have a child
+    private int repeatedNodes; // nodes reached through more than one path of a root given to the constructor
 
     /**
      * This constructor is responsible to create a Huffman code tree using a provided Node as root.
@@ -18,6 +32,23 @@ public class HuffmanCodeTree {
      */
     public HuffmanCodeTree(HuffmanNode root) {
         this.root = root;
+        Set<HuffmanNode> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        ArrayDeque<HuffmanNode> stack = new ArrayDeque<>(); // an explicit stack so deep trees can't overflow the call stack
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            HuffmanNode node = stack.pop();
+            if (!seen.add(node)) {
+                repeatedNodes++; // not walked again, which also keeps a cycle from looping forever
+                continue;
+            }
+            count(node, 1);
+            if (node.getZero() != null) {
+                stack.push(node.getZero());
+            }
+            if (node.getOne() != null) {
+                stack.push(node.getOne());
+            }
+        }
     }
 
     /**
@@ -26,6 +57,7 @@ public class HuffmanCodeTree {
      */
     public HuffmanCodeTree(HuffmanCodeBook codebook) {
         root = new HuffmanNode( null, null); // Initializing the Huffman code tree with an empty node
+        count(root, 1);
         // looping over the characters in the Huffman code book, by getting the related sequences and looping over them
         // Implementing the interface method for customized looping of the characters
         codebook.characterLooper(new HuffmanCodeBook.CharacterEfficientLooper() {
@@ -41,10 +73,20 @@ public class HuffmanCodeTree {
 
     /**
      * This method is responsible to check if the tree formed by the root node and its descendants is a valid Huffman
-     * code tree.
+     * code tree. It only looks at the counts kept by put, so it takes the same time however big the tree is.
      * @return - returns a boolean value indicating if the tree formed is valid or not
      */
     public boolean isValid() {
+        return incompleteNodes == 0 && dataInternalNodes == 0 && repeatedNodes == 0;
+    }
+
+
+    /**
+     * This method is responsible to check the whole tree node by node, including the Kraft equality of its code
+     * lengths, for trees whose nodes may have been changed without going through put.
+     * @return - returns a boolean value indicating if the tree formed is valid or not
+     */
+    public boolean verify() {
         return root.isValidTree();
     }
 
@@ -63,7 +105,10 @@ public class HuffmanCodeTree {
             if (eachBit) {
                 if (newNode.getOne() == null) {
                     HuffmanNode addNode = new HuffmanNode(null,null); // Creating a new node to traverse the tree since the newNode of child one is null
+                    count(newNode, -1);
                     newNode.setOne(addNode); // setting the newly created empty node for child one
+                    count(newNode, 1);
+                    count(addNode, 1);
                     newNode=addNode; // updating the new node to the newly created empty node in order for the traversal to continue from this node
                 }
                 else {
@@ -74,7 +119,10 @@ public class HuffmanCodeTree {
             else {
                 if (newNode.getZero() == null) {
                     HuffmanNode addNode = new HuffmanNode(null,null); // Creating a new node to traverse the tree since the newNode of child zero is null
+                    count(newNode, -1);
                     newNode.setZero(addNode); // setting the newly created empty node for child zero
+                    count(newNode, 1);
+                    count(addNode, 1);
                     newNode=addNode; // updating the new node to the newly created empty node in order for the traversal to continue from this node
                 }
                 else {
@@ -82,7 +130,56 @@ public class HuffmanCodeTree {
                 }
             }
         }
+        count(newNode, -1);
         newNode.setData(letter); // Setting the data of the new node to the given letter character indicating that it associates with the binary sequence in the tree
+        count(newNode, 1);
+    }
+
+
+    /**
+     * This method is responsible to add a node to, or take it off, the count of invalid nodes it belongs to. put takes
+     * a node off before changing it and adds it back afterwards, so the counts follow the change.
+     * @param node -- It represents the node
+     * @param change -- It represents 1 to add the node or -1 to take it off
+     */
+    private void count(HuffmanNode node, int change) {
+        if (node.getData() == null) {
+            if (node.getZero() == null || node.getOne() == null) {
+                incompleteNodes += change;
+            }
+        } else if (node.getZero() != null || node.getOne() != null) {
+            dataInternalNodes += change;
+        }
+    }
+
+
+    /**
+     * This method is responsible to compile the tree into a table driven decoder that reads several bits per lookup.
+     * The decoder is a snapshot, so later calls to put are not seen by it.
+     * @return - returns the compiled decoder for the current tree
+     */
+    public HuffmanTableDecoder compile() {
+        return new HuffmanTableDecoder(root);
+    }
+
+
+    /**
+     * This method is responsible to compile the tree into a table driven decoder whose lookups can give several
+     * letters at once. The decoder is a snapshot, so later calls to put are not seen by it.
+     * @return - returns the compiled decoder for the current tree
+     */
+    public HuffmanMultiSymbolDecoder compileMultiSymbol() {
+        return new HuffmanMultiSymbolDecoder(compile());
+    }
+
+
+    /**
+     * This method is responsible to freeze the tree into an immutable encoder and decoder pair that any number of
+     * threads can share. Later calls to put are not seen by it.
+     * @return - returns the frozen codec for the current tree
+     */
+    public HuffmanCodec freeze() {
+        return HuffmanCodec.of(root);
     }
 
 
@@ -93,6 +190,181 @@ public class HuffmanCodeTree {
      * @return - returns the decoded string
      */
     public String decode(BinarySequence s) {
+        return decodeBits(s, s.size());
+    }
+
+
+    /**
+     * This method is responsible to decode packed bits into a string by walking the tree, in the same way as the
+     * BinarySequence version does.
+     * @param s -- It represents the packed bits that need to be decoded into a string
+     * @return - returns the decoded string
+     */
+    public String decode(PackedBinarySequence s) {
+        return decodeBits(s, s.size());
+    }
+
+
+    /**
+     * This method is responsible to decode a BinarySequence into part of a caller's char array instead of a new
+     * string, so that a reused array makes the call allocate nothing besides the bit iterator.
+     * @param s -- It represents the BinarySequence that need to be decoded
+     * @param out -- It represents the array that receives the letters
+     * @param offset -- It represents where in the array the first letter goes
+     * @return - returns the number of letters decoded
+     * @throws IndexOutOfBoundsException -- if the letters do not fit in the array
+     */
+    public int decode(BinarySequence s, char[] out, int offset) {
+        HuffmanMetrics metrics = HuffmanMetrics.active(); // null unless metrics were enabled
+        long started = metrics == null ? 0 : System.nanoTime();
+        if (offset < 0 || offset > out.length) {
+            throw new IndexOutOfBoundsException("offset " + offset + " of " + out.length);
+        }
+        int next = offset;
+        HuffmanNode node = root;
+        for (boolean eachBit : s) {
+            node = eachBit ? node.getOne() : node.getZero();
+            if (node.isLeaf()) {
+                if (next == out.length) {
+                    throw new IndexOutOfBoundsException("the decoded letters do not fit in " + (out.length - offset) + " chars");
+                }
+                out[next++] = node.getData();
+                node = root;
+            }
+        }
+        if (metrics != null) {
+            metrics.recordDecode(s.size(), next - offset, System.nanoTime() - started);
+        }
+        return next - offset;
+    }
+
+
+    /**
+     * This method is responsible to decode some of the bits of a bit source into part of a caller's char array. It
+     * reads the bits 64 at a time and allocates nothing, so the same array can be used for call after call, for
+     * example one taken from a CharArrayPool. Bits of an unfinished code at the end of the range are ignored, the same
+     * as decode(BinarySequence) does.
+     * @param bits -- It represents the bits that need to be decoded
+     * @param from -- It represents the position of the first bit to decode
+     * @param length -- It represents how many bits to decode
+     * @param out -- It represents the array that receives the letters
+     * @param offset -- It represents where in the array the first letter goes
+     * @return - returns the number of letters decoded
+     * @throws IndexOutOfBoundsException -- if the letters do not fit in the array
+     */
+    public int decode(HuffmanTableDecoder.BitSource bits, long from, long length, char[] out, int offset) {
+        if (offset < 0 || offset > out.length) {
+            throw new IndexOutOfBoundsException("offset " + offset + " of " + out.length);
+        }
+        return decodeInto(bits, from, length, out, offset, null);
+    }
+
+
+    /**
+     * This method is responsible to decode some of the bits of a bit source into a caller's CharBuffer, starting at its
+     * position and moving the position past the letters. Buffers backed by an array are filled through the array, so
+     * neither kind allocates anything. If the letters do not fit, the position is left where it was for both kinds of
+     * buffer, though the room after it may already hold some of the letters.
+     * @param bits -- It represents the bits that need to be decoded
+     * @param from -- It represents the position of the first bit to decode
+     * @param length -- It represents how many bits to decode
+     * @param out -- It represents the buffer that receives the letters
+     * @return - returns the number of letters decoded
+     * @throws BufferOverflowException -- if the letters do not fit in the remaining room of the buffer
+     */
+    public int decode(HuffmanTableDecoder.BitSource bits, long from, long length, CharBuffer out) {
+        int start = out.position();
+        if (out.hasArray()) {
+            int decoded;
+            try {
+                decoded = decodeInto(bits, from, length, out.array(), out.arrayOffset() + start, null, out.arrayOffset() + out.limit());
+            } catch (IndexOutOfBoundsException e) {
+                throw new BufferOverflowException();
+            }
+            out.position(start + decoded);
+            return decoded;
+        }
+        try {
+            return decodeInto(bits, from, length, null, 0, out);
+        } catch (BufferOverflowException e) {
+            out.position(start); // put already moved the position past the letters that fit
+            throw e;
+        }
+    }
+
+
+    /**
+     * This method is a helper method for the decode methods that fill a caller's array or buffer.
+     * @param bits -- It represents the bits that need to be decoded
+     * @param from -- It represents the position of the first bit to decode
+     * @param length -- It represents how many bits to decode
+     * @param array -- It represents the array that receives the letters, or null to use buffer
+     * @param offset -- It represents where in the array the first letter goes
+     * @param buffer -- It represents the buffer that receives the letters when array is null
+     * @return - returns the number of letters decoded
+     */
+    private int decodeInto(HuffmanTableDecoder.BitSource bits, long from, long length, char[] array, int offset, CharBuffer buffer) {
+        return decodeInto(bits, from, length, array, offset, buffer, array == null ? 0 : array.length);
+    }
+
+
+    /**
+     * This method is a helper method for the decode methods that fill a caller's array or buffer, walking the tree
+     * with 64 bits of the source at a time.
+     * @param bits -- It represents the bits that need to be decoded
+     * @param from -- It represents the position of the first bit to decode
+     * @param length -- It represents how many bits to decode
+     * @param array -- It represents the array that receives the letters, or null to use buffer
+     * @param offset -- It represents where in the array the first letter goes
+     * @param buffer -- It represents the buffer that receives the letters when array is null
+     * @param limit -- It represents the array index the letters must stay below
+     * @return - returns the number of letters decoded
+     */
+    private int decodeInto(HuffmanTableDecoder.BitSource bits, long from, long length, char[] array, int offset, CharBuffer buffer, int limit) {
+        if (from < 0 || length < 0 || from + length > bits.size()) {
+            throw new IllegalArgumentException("bits " + from + " to " + (from + length) + " are not inside the " + bits.size() + " bits");
+        }
+        HuffmanMetrics metrics = HuffmanMetrics.active(); // null unless metrics were enabled
+        long started = metrics == null ? 0 : System.nanoTime();
+        int next = offset;
+        int decoded = 0;
+        HuffmanNode node = root;
+        long end = from + length;
+        for (long position = from; position < end; position += 64) {
+            long window = bits.peek(position);
+            int count = (int) Math.min(64, end - position);
+            for (int b = 0; b < count; b++) {
+                node = window < 0 ? node.getOne() : node.getZero(); // the next bit is always the sign bit of the window
+                window <<= 1;
+                if (node.isLeaf()) {
+                    if (array == null) {
+                        buffer.put(node.getData());
+                    } else if (next == limit) {
+                        throw new IndexOutOfBoundsException("the decoded letters do not fit in " + (limit - offset) + " chars");
+                    } else {
+                        array[next++] = node.getData();
+                    }
+                    decoded++;
+                    node = root;
+                }
+            }
+        }
+        if (metrics != null) {
+            metrics.recordDecode(length, decoded, System.nanoTime() - started);
+        }
+        return decoded;
+    }
+
+
+    /**
+     * This method is a helper method for both decode methods that walks the tree one bit at a time.
+     * @param s -- It represents the bits that need to be decoded into a string
+     * @param size -- It represents the number of bits, for the metrics
+     * @return - returns the decoded string
+     */
+    private String decodeBits(Iterable<Boolean> s, long size) {
+        HuffmanMetrics metrics = HuffmanMetrics.active(); // null unless metrics were enabled
+        long started = metrics == null ? 0 : System.nanoTime();
         StringBuilder outputString = new StringBuilder(); // Initializing a StringBuilder for this method to be efficient in storing the output string
         HuffmanNode node = root; // creating a variable “node” and having it store the root node of the tree
         // Looping through every boolean value in the given Binary Sequence
@@ -107,6 +379,9 @@ public class HuffmanCodeTree {
                 node = root; // resetting the node to root
             }
         }
+        if (metrics != null) {
+            metrics.recordDecode(size, outputString.length(), System.nanoTime() - started);
+        }
         return outputString.toString(); // returning the final output string by converting the StringBuilder to a string
     }
 }
@@ -1,3 +1,7 @@
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+
 /**
  * Due to the task-focused design of the HuffmanCodeTree
  * it's pretty much impossible to test any one function in isolation
@@ -133,6 +137,67 @@ As of some one gently rapping, rapping at my chamber door.
             Only this and nothing more."
     
          */
+
+        /////////////////////////////////////////////////
+        // Test 6 (skewed tree)
+        // isValid is checked after every put, which stays
+        // cheap since it does not walk the tree.
+        /////////////////////////////////////////////////
+        tree = new HuffmanCodeTree(new HuffmanNode(null, null));
+        StringBuilder ones = new StringBuilder();
+        int validAfter = 0;
+        for (int i = 0; i < 3000; i++) {
+            tree.put(new BinarySequence(ones + "0"), (char) ('a' + i));
+            validAfter += tree.isValid() ? 1 : 0;
+            ones.append('1');
+        }
+        tree.put(new BinarySequence(ones.toString()), '!');
+        System.out.println(validAfter);                  // 0
+        System.out.println(tree.isValid());              // true
+        System.out.println(tree.verify());               // true
+
+        /////////////////////////////////////////////////
+        // Test 7 (pre-built tree sharing a node)
+        /////////////////////////////////////////////////
+        n1 = new HuffmanNode('a');
+        tree = new HuffmanCodeTree(new HuffmanNode(n1, new HuffmanNode(n1, new HuffmanNode('b'))));
+        System.out.println(tree.isValid());              // false
+        System.out.println(tree.verify());               // false
+
+        /////////////////////////////////////////////////
+        // Test 8 (decode into the caller's buffers)
+        // a pooled array is filled over and over without
+        // allocating anything
+        /////////////////////////////////////////////////
+        tree = new HuffmanCodeTree(temp);
+        PackedBinarySequence packed = PackedBinarySequence.of(new BinarySequence("0011011000"));
+        char[] out = CharArrayPool.shared().acquire(8);
+        System.out.println(tree.decode(packed, 2, 8, out, 1) + " " + new String(out, 1, 4));   // 4 dbca
+        System.out.println(tree.decode(new BinarySequence("0110"), out, 0) + " " + out[0] + out[1]);   // 2 bc
+        CharBuffer buffer = CharBuffer.allocate(3);
+        System.out.println(tree.decode(packed, 0, 6, buffer) + " " + buffer.flip());   // 3 adb
+        // a buffer that is too small keeps its position, backed by an array or not
+        for (CharBuffer small : new CharBuffer[] {CharBuffer.allocate(3), ByteBuffer.allocateDirect(6).asCharBuffer()}) {
+            try {
+                tree.decode(packed, 0, 10, small);
+                System.out.println("fit");
+            } catch (BufferOverflowException e) {
+                System.out.println("overflow " + small.position());   // overflow 0
+            }
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) java.lang.management.ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long letters = 0;
+        for (int round = 0; round < 2; round++) { // the first round warms up, the second one is measured
+            long before = threads.getThreadAllocatedBytes(thread);
+            for (int i = 0; i < 100000; i++) {
+                letters += tree.decode(packed, 0, packed.size(), out, 0);
+            }
+            if (round == 1) {
+                System.out.println(threads.getThreadAllocatedBytes(thread) - before);   // 0
+            }
+        }
+        CharArrayPool.shared().release(out);
     }
 
 
@@ -156,5 +221,16 @@ Over many a quaint and curious volume of forgotten lore—
 As of some one gently rapping, rapping at my chamber door.
 "'Tis some visitor," I muttered, "tapping at my chamber door—
             Only this and nothing more."
+0
+true
+true
+false
+false
+4 dbca
+2 bc
+3 adb
+overflow 0
+overflow 0
+0
 
  */
\ No newline at end of file
@@ -0,0 +1,135 @@
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Project 3
+ * Author: Nitish Kumar Yarlagadda
+ * HuffmanCodec class
+ */
+public final class HuffmanCodec {
+
+    /**
+     * The HuffmanCodec class is a frozen snapshot of a HuffmanCodeBook or a HuffmanCodeTree, holding a compiled encoder
+     * and decoder for the same codes. Neither of them can be changed after it is built: every field is final, the
+     * arrays behind them are never handed out, and no method writes to them. So a codec is safely published through
+     * any final or volatile field, and any number of threads can share one without locking or copying. Later changes
+     * to the codebook or tree it was frozen from are not seen by it.
+     */
+
+    private final HuffmanEncoder encoder;
+    private final HuffmanTableDecoder decoder;
+
+    /**
+     * This constructor is responsible to pair an encoder with the decoder for the same codes.
+     * @param encoder -- It represents the compiled codes used for encoding
+     * @param decoder -- It represents the compiled tree used for decoding
+     */
+    public HuffmanCodec(HuffmanEncoder encoder, HuffmanTableDecoder decoder) {
+        if (encoder == null || decoder == null) {
+            throw new IllegalArgumentException("a codec needs both an encoder and a decoder");
+        }
+        this.encoder = encoder;
+        this.decoder = decoder;
+    }
+
+    /**
+     * This method is responsible to freeze the codes of the tree below the given root, walking it only once.
+     * @param root -- It represents the root node of a valid Huffman code tree
+     * @return - returns the frozen codec
+     */
+    public static HuffmanCodec of(HuffmanNode root) {
+        HuffmanTableDecoder.CodeList codes = new HuffmanTableDecoder.CodeList(root);
+        return new HuffmanCodec(codes.toEncoder(), codes.toDecoder());
+    }
+
+    /**
+     * This method is responsible to freeze the codes of a codebook.
+     * @param codebook -- It represents the codebook whose codes will be used
+     * @return - returns the frozen codec
+     */
+    public static HuffmanCodec of(HuffmanCodeBook codebook) {
+        return new HuffmanCodec(codebook.compile(), new HuffmanCodeTree(codebook).compile());
+    }
+
+    /**
+     * This method is responsible to encode a piece of text into packed bits.
+     * @param s -- It represents the text that needs to be encoded
+     * @return - returns the encoded bits
+     */
+    public PackedBinarySequence encode(CharSequence s) {
+        return encoder.encode(s);
+    }
+
+    /**
+     * This method is responsible to encode a piece of text and append the bits to a writer owned by the caller.
+     * @param s -- It represents the text that needs to be encoded
+     * @param out -- It represents the writer that receives the bits
+     * @return - returns the number of letters that had a code and were written
+     */
+    public int encode(CharSequence s, PackedBitWriter out) {
+        return encoder.encode(s, out);
+    }
+
+    /**
+     * This method is responsible to work out how many bits a piece of text encodes to, without encoding it.
+     * @param s -- It represents the text
+     * @return - returns the number of bits encode would write for the text
+     */
+    public long encodedBitLength(CharSequence s) {
+        return encoder.encodedBitLength(s);
+    }
+
+    /**
+     * This method is responsible to decode a BinarySequence in the same way as HuffmanCodeTree.decode does.
+     * @param s -- It represents the BinarySequence that need to be decoded into a string
+     * @return - returns the decoded string
+     */
+    public String decode(BinarySequence s) {
+        return decoder.decode(s);
+    }
+
+    /**
+     * This method is responsible to decode the bits of any bit source into a string.
+     * @param bits -- It represents the bits that need to be decoded
+     * @return - returns the decoded string
+     */
+    public String decode(HuffmanTableDecoder.BitSource bits) {
+        return decoder.decode(bits);
+    }
+
+    /**
+     * This method is responsible to decode the bits of any bit source and write the text to a writer.
+     * @param bits -- It represents the bits that need to be decoded
+     * @param out -- It represents the writer that receives the decoded text
+     * @return - returns the number of chars written
+     * @throws IOException -- if the writer fails
+     */
+    public long decode(HuffmanTableDecoder.BitSource bits, Writer out) throws IOException {
+        return decoder.decode(bits, out);
+    }
+
+    /**
+     * This method is responsible to check if the codec has a code for the given letter.
+     * @param c -- It represents the letter to check
+     * @return - returns true if the letter has a code otherwise false
+     */
+    public boolean contains(char c) {
+        return encoder.contains(c);
+    }
+
+    /**
+     * This method is responsible to return the compiled encoder, which is just as immutable as the codec.
+     * @return - returns the encoder
+     */
+    public HuffmanEncoder getEncoder() {
+        return encoder;
+    }
+
+    /**
+     * This method is responsible to return the compiled decoder, which is just as immutable as the codec.
+     * @return - returns the decoder
+     */
+    public HuffmanTableDecoder getDecoder() {
+        return decoder;
+    }
+}
@@ -0,0 +1,251 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Project 3
+ * Author: Nitish Kumar Yarlagadda
+ * HuffmanCodecCache class
+ */
+public class HuffmanCodecCache {
+
+    /**
+     * The HuffmanCodecCache class keeps the frozen codecs of recently used codebooks, so a codebook that was seen before
+     * does not need its tree and tables built again. Codebooks are keyed by a fingerprint, a 128 bit hash of every
+     * letter and its sequence, so two codebooks with the same codes share one entry no matter how they were built.
+     * The codebook keeps its fingerprint until it changes, so a hit costs one map lookup and not a pass over the codes.
+     * When more than maxEntries codecs are cached the least recently used one is evicted. Lookups hold a lock only for
+     * the map access; a missing codec is compiled outside of it, so one slow compile does not hold up the hits.
+     */
+
+    private final int maxEntries;
+    private final LinkedHashMap<Fingerprint, HuffmanCodec> entries; // in access order, the eldest is the least recently used
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * This constructor is responsible to create an empty cache holding at most the given number of codecs.
+     * @param maxEntries -- It represents how many codecs are kept before the least recently used one is evicted
+     */
+    public HuffmanCodecCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Fingerprint, HuffmanCodec> eldest) {
+                if (size() > HuffmanCodecCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * This method is responsible to return the codec of a codebook, compiling and caching it if it is not cached yet.
+     * @param codebook -- It represents the codebook
+     * @return - returns the frozen codec for the codebook
+     */
+    public HuffmanCodec get(HuffmanCodeBook codebook) {
+        Fingerprint key = codebook.getFingerprint();
+        HuffmanCodec codec = get(key);
+        if (codec != null) {
+            return codec;
+        }
+        synchronized (this) {
+            misses++;
+        }
+        HuffmanCodec compiled = codebook.freeze();
+        synchronized (this) {
+            HuffmanCodec raced = entries.putIfAbsent(key, compiled);
+            return raced != null ? raced : compiled; // another thread compiled the same codebook first
+        }
+    }
+
+    /**
+     * This method is responsible to return the cached codec for a fingerprint, for callers that keep the fingerprint of
+     * their codebook and want to skip hashing it again.
+     * @param key -- It represents the fingerprint of the codebook
+     * @return - returns the codec, or null if it is not cached
+     */
+    public synchronized HuffmanCodec get(Fingerprint key) {
+        HuffmanCodec codec = entries.get(key);
+        if (codec != null) {
+            hits++;
+        }
+        return codec;
+    }
+
+    /**
+     * This method is responsible to return the compiled encoder of a codebook.
+     * @param codebook -- It represents the codebook
+     * @return - returns the encoder
+     */
+    public HuffmanEncoder getEncoder(HuffmanCodeBook codebook) {
+        return get(codebook).getEncoder();
+    }
+
+    /**
+     * This method is responsible to return the compiled decoder of a codebook.
+     * @param codebook -- It represents the codebook
+     * @return - returns the decoder
+     */
+    public HuffmanTableDecoder getDecoder(HuffmanCodeBook codebook) {
+        return get(codebook).getDecoder();
+    }
+
+    /**
+     * This method is responsible to return the number of cached codecs.
+     * @return - returns the number of entries
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * This method is responsible to remove every cached codec. The statistics are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * This method is responsible to return how many lookups found a cached codec.
+     * @return - returns the number of hits
+     */
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * This method is responsible to return how many lookups of a codebook had to compile it.
+     * @return - returns the number of misses
+     */
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * This method is responsible to return how many codecs were evicted to stay within maxEntries.
+     * @return - returns the number of evictions
+     */
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    /**
+     * This method is responsible to return the share of codebook lookups that were hits.
+     * @return - returns the hit rate between 0 and 1, or 0 before the first lookup
+     */
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * This method is responsible to return the statistics in one line.
+     * @return - returns the statistics as a string
+     */
+    @Override
+    public synchronized String toString() {
+        return "HuffmanCodecCache[size=" + entries.size() + "/" + maxEntries + ", hits=" + hits + ", misses=" + misses
+                + ", evictions=" + evictions + "]";
+    }
+
+    /**
+     * This method is responsible to return the fingerprint of a codebook, the same one its entry is cached under.
+     * @param codebook -- It represents the codebook
+     * @return - returns the fingerprint of the codebook
+     */
+    public static Fingerprint fingerprint(HuffmanCodeBook codebook) {
+        return codebook.getFingerprint();
+    }
+
+    /**
+     * This method is responsible to hash every letter of a codebook together with its sequence, in char order so that
+     * the order the letters were added in does not matter. HuffmanCodeBook.getFingerprint calls it and keeps the result.
+     * @param codebook -- It represents the codebook
+     * @return - returns the fingerprint of the codebook
+     */
+    static Fingerprint computeFingerprint(HuffmanCodeBook codebook) {
+        long[] state = {0x6a09e667f3bcc908L, 0xbb67ae8584caa73bL}; // two lanes with different seeds
+        codebook.characterLooper(new HuffmanCodeBook.CharacterEfficientLooper() {
+            @Override
+            public void charLoop(char character) {
+                long bits = 0;
+                int length = 0;
+                for (boolean eachBit : codebook.getSequence(character)) {
+                    bits = bits << 1 | (eachBit ? 1 : 0);
+                    if ((++length & 63) == 0) {
+                        add(state, bits);
+                        bits = 0;
+                    }
+                }
+                add(state, bits);
+                add(state, (long) character << 32 | length); // the letter and the length close every entry
+            }
+        });
+        return new Fingerprint(mix(state[0]), mix(state[1] ^ codebook.size()));
+    }
+
+    /**
+     * This method is responsible to fold one word into both lanes of the hash.
+     * @param state -- It represents the two lanes
+     * @param word -- It represents the word to add
+     */
+    private static void add(long[] state, long word) {
+        state[0] = mix(state[0] ^ word) * 0x9e3779b97f4a7c15L;
+        state[1] = Long.rotateLeft(state[1] + mix(word + 0x632be59bd9b4e019L), 31) * 0xff51afd7ed558ccdL;
+    }
+
+    /**
+     * This method is responsible to scramble the bits of a word so that every input bit affects every output bit.
+     * @param z -- It represents the word
+     * @return - returns the scrambled word
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+
+
+    // The below code represents the key the codecs are cached under
+
+    /**
+     * This class represents the 128 bit content hash of a codebook.
+     */
+    public static final class Fingerprint {
+        private final long high;
+        private final long low;
+
+        /**
+         * This constructor is responsible to create a fingerprint from its two halves.
+         * @param high -- It represents the first 64 bits
+         * @param low -- It represents the last 64 bits
+         */
+        public Fingerprint(long high, long low) {
+            this.high = high;
+            this.low = low;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Fingerprint && ((Fingerprint) other).high == high && ((Fingerprint) other).low == low;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (high ^ high >>> 32);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%016x%016x", high, low);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+public class HuffmanCodecCacheTester {
+    public static void main(String[] args) {
+        HuffmanCodeBook book = ProvidedHuffmanCodeBook.getEbookHuffmanCodebook();
+
+        /////////////////////////////////////////////////
+        // Test 1: the second request for a codebook is a hit and returns the same codec
+        /////////////////////////////////////////////////
+        HuffmanCodecCache cache = new HuffmanCodecCache(2);
+        HuffmanCodec first = cache.get(book);
+        HuffmanCodec second = cache.get(book);
+        System.out.println(first == second);                           // true
+        System.out.println(cache);                                     // HuffmanCodecCache[size=1/2, hits=1, misses=1, evictions=0]
+        System.out.println(first.decode(first.encode("Nevermore")));   // Nevermore
+
+        /////////////////////////////////////////////////
+        // Test 2: the fingerprint depends on the codes, not on the order letters were added in
+        /////////////////////////////////////////////////
+        HuffmanCodeBook ab = new HuffmanCodeBook();
+        ab.addSequence('a', new BinarySequence("0"));
+        ab.addSequence('b', new BinarySequence("1"));
+        HuffmanCodeBook ba = new HuffmanCodeBook();
+        ba.addSequence('b', new BinarySequence("1"));
+        ba.addSequence('a', new BinarySequence("0"));
+        HuffmanCodeBook swapped = new HuffmanCodeBook();
+        swapped.addSequence('a', new BinarySequence("1"));
+        swapped.addSequence('b', new BinarySequence("0"));
+        System.out.println(HuffmanCodecCache.fingerprint(ab).equals(HuffmanCodecCache.fingerprint(ba)));        // true
+        System.out.println(HuffmanCodecCache.fingerprint(ab).equals(HuffmanCodecCache.fingerprint(swapped)));   // false
+        System.out.println(HuffmanCodecCache.fingerprint(ab).toString().length());   // 32
+        // the codebook keeps its fingerprint until a letter is added
+        HuffmanCodecCache.Fingerprint kept = ab.getFingerprint();
+        System.out.println(kept == ab.getFingerprint());               // true
+        HuffmanCodeBook grown = new HuffmanCodeBook();
+        grown.addSequence('a', new BinarySequence("0"));
+        HuffmanCodecCache.Fingerprint small = grown.getFingerprint();
+        grown.addSequence('b', new BinarySequence("1"));
+        System.out.println(small.equals(grown.getFingerprint()) + " " + kept.equals(grown.getFingerprint()));   // false true
+
+        /////////////////////////////////////////////////
+        // Test 3: the least recently used codebook is evicted
+        /////////////////////////////////////////////////
+        cache.get(ab);
+        cache.get(book); // book is now more recently used than ab
+        cache.get(swapped);
+        System.out.println(cache.get(HuffmanCodecCache.fingerprint(ab)) == null);     // true
+        System.out.println(cache.get(HuffmanCodecCache.fingerprint(book)) == first);  // true
+        System.out.println(cache.getEvictionCount());                 // 1
+        System.out.println(cache.getMissCount());                     // 3
+    }
+}
+/*
+true
+HuffmanCodecCache[size=1/2, hits=1, misses=1, evictions=0]
+Nevermore
+true
+false
+32
+true
+false true
+true
+true
+1
+3
+ */
@@ -0,0 +1,68 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class HuffmanCodecTester {
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        HuffmanCodeBook book = ProvidedHuffmanCodeBook.getEbookHuffmanCodebook();
+        String original = "Once upon a midnight dreary, while I pondered, weak and weary,\n" +
+                "Over many a quaint and curious volume of forgotten lore—\n" +
+                "            Only this and nothing more.\"";
+
+        /////////////////////////////////////////////////
+        // Test 1: a frozen codebook encodes and decodes the same as the codebook and the tree
+        /////////////////////////////////////////////////
+        HuffmanCodec codec = book.freeze();
+        BinarySequence encoded = book.encode(original);
+        System.out.println(codec.encode(original).toString().equals(encoded.toString()));   // true
+        System.out.println(codec.decode(encoded).equals(original));    // true
+
+        /////////////////////////////////////////////////
+        // Test 2: a frozen tree does not see later changes to the tree
+        /////////////////////////////////////////////////
+        HuffmanCodeBook small = new HuffmanCodeBook();
+        small.addSequence('a', new BinarySequence("0"));
+        small.addSequence('b', new BinarySequence("1"));
+        HuffmanCodeTree tree = new HuffmanCodeTree(small);
+        HuffmanCodec frozen = tree.freeze();
+        tree.put(new BinarySequence("1"), 'c');
+        System.out.println(frozen.contains('c'));                      // false
+        System.out.println(frozen.encode("abcab"));                    // 0101
+        System.out.println(frozen.decode(new BinarySequence("0110")));  // abba
+        System.out.println(tree.decode(new BinarySequence("0110")));    // acca
+
+        /////////////////////////////////////////////////
+        // Test 3: one codec shared by a whole thread pool
+        /////////////////////////////////////////////////
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int task = 0; task < 64; task++) {
+            String text = original + task;
+            results.add(pool.submit(() -> {
+                boolean same = true;
+                for (int round = 0; round < 50; round++) {
+                    same &= codec.decode(codec.encode(text)).equals(text);
+                }
+                return same;
+            }));
+        }
+        boolean allSame = true;
+        for (Future<Boolean> result : results) {
+            allSame &= result.get();
+        }
+        pool.shutdown();
+        System.out.println(allSame);                                   // true
+    }
+}
+/*
+true
+true
+false
+0101
+abba
+acca
+true
+ */
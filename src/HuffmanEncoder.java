@@ -0,0 +1,352 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Project 3
+ * Author: Nitish Kumar Yarlagadda
+ * HuffmanEncoder class
+ */
+public class HuffmanEncoder {
+
+    /**
+     * The HuffmanEncoder class is a compiled form of a HuffmanCodeBook. Every code is kept as a (long bits, int length)
+     * pair in primitive arrays, and encoding writes those pairs through a PackedBitWriter instead of appending one
+     * BinarySequence per letter. Letters that are not in the codebook are skipped, the same as HuffmanCodeBook.encode
+     * does.
+     *
+     * When HuffmanVectorSupport is enabled, the codes of chars below 256 are looked up a vector at a time into a block
+     * buffer before they are written, which gives the same bits as looking them up one at a time. The block buffers are
+     * kept per thread, so encoding allocates nothing for them once a thread has encoded with the vector lookups before.
+     *
+     * encodedBitLength works out the exact size of the encoded text by adding up code lengths, without writing any
+     * bits, so a buffer or file region can be sized before encoding or several codes can be compared on the same text.
+     */
+
+    public static final int MAX_CODE_LENGTH = 64;
+    private static final int DENSE_SIZE = 256;
+    private static final int GATHER_BLOCK = 1024;
+    private static final int MIN_LENGTH_CHUNK = 1 << 16; // smaller pieces are summed faster than a task is forked
+    private static final ThreadLocal<GatherBuffers> GATHER_BUFFERS = ThreadLocal.withInitial(GatherBuffers::new);
+
+    private final CharIndex index; // gives every letter a slot in the code tables
+    private final long[] codes; // codes[slot] is the code of the letter in that slot, right aligned
+    private final int[] lengths; // lengths[slot] is the number of bits in codes[slot]
+    private final long[] denseCodes = new long[DENSE_SIZE]; // the code of every char below 256, for the vector lookups
+    private final int[] denseLengths = new int[DENSE_SIZE]; // the code length of every char below 256, 0 without a code
+
+    /**
+     * This constructor is responsible to compile the current contents of a codebook. The encoder is a snapshot, so
+     * later calls to addSequence are not seen by it.
+     * @param codebook -- It represents the codebook whose codes will be used
+     */
+    public HuffmanEncoder(HuffmanCodeBook codebook) {
+        index = new CharIndex();
+        codes = new long[codebook.size()];
+        lengths = new int[codebook.size()];
+        codebook.characterLooper(new HuffmanCodeBook.CharacterEfficientLooper() {
+            @Override
+            public void charLoop(char character) {
+                long bits = 0;
+                int length = 0;
+                for (boolean eachBit : codebook.getSequence(character)) {
+                    if (length == MAX_CODE_LENGTH) {
+                        throw new IllegalArgumentException("the code of '" + character + "' is longer than " + MAX_CODE_LENGTH + " bits");
+                    }
+                    bits = bits << 1 | (eachBit ? 1 : 0);
+                    length++;
+                }
+                int slot = index.add(character);
+                codes[slot] = bits;
+                lengths[slot] = length;
+            }
+        });
+        fillDense();
+    }
+
+    /**
+     * This constructor is responsible to create an encoder straight from code arrays. Code i is stored in the lowest
+     * lengths[i] bits of codes[i].
+     * @param symbols -- It represents the letter of every code
+     * @param codes -- It represents the bits of every code, right aligned
+     * @param lengths -- It represents the length of every code in bits
+     */
+    public HuffmanEncoder(char[] symbols, long[] codes, int[] lengths) {
+        if (symbols.length != codes.length || codes.length != lengths.length) {
+            throw new IllegalArgumentException("symbols, codes and lengths must have the same length");
+        }
+        this.index = new CharIndex();
+        this.codes = new long[symbols.length];
+        this.lengths = new int[symbols.length];
+        for (int i = 0; i < symbols.length; i++) {
+            if (lengths[i] < 0 || lengths[i] > MAX_CODE_LENGTH) {
+                throw new IllegalArgumentException("code length " + lengths[i] + " for '" + symbols[i] + "' is not between 0 and " + MAX_CODE_LENGTH);
+            }
+            if (index.contains(symbols[i])) {
+                continue; // the first code given for a letter wins, the same as HuffmanCodeBook.addSequence
+            }
+            int slot = index.add(symbols[i]);
+            this.lengths[slot] = lengths[i];
+            this.codes[slot] = lengths[i] == 64 ? codes[i] : codes[i] & ((1L << lengths[i]) - 1);
+        }
+        fillDense();
+    }
+
+    /**
+     * This method is responsible to copy the codes of the chars below 256 into the tables indexed by char.
+     */
+    private void fillDense() {
+        for (char c = 0; c < DENSE_SIZE; c++) {
+            int slot = index.indexOf(c);
+            if (slot >= 0) {
+                denseCodes[c] = codes[slot];
+                denseLengths[c] = lengths[slot];
+            }
+        }
+    }
+
+    /**
+     * This method is responsible to encode a piece of text into packed bits.
+     * @param s -- It represents the text that needs to be encoded
+     * @return - returns the encoded bits
+     */
+    public PackedBinarySequence encode(CharSequence s) {
+        PackedBitWriter out = new PackedBitWriter(encodedBitLength(s)); // exactly the right size, so it never grows
+        encode(s, out);
+        return out.toSequence();
+    }
+
+    /**
+     * This method is responsible to encode a piece of text and append the bits to a writer.
+     * @param s -- It represents the text that needs to be encoded
+     * @param out -- It represents the writer that receives the bits
+     * @return - returns the number of letters that had a code and were written
+     */
+    public int encode(CharSequence s, PackedBitWriter out) {
+        HuffmanMetrics metrics = HuffmanMetrics.active(); // null unless metrics were enabled
+        long started = metrics == null ? 0 : System.nanoTime();
+        long before = out.size();
+        int encoded = 0;
+        if (HuffmanVectorSupport.isEnabled()) {
+            GatherBuffers buffers = GATHER_BUFFERS.get();
+            char[] block = buffers.chars;
+            for (int start = 0; start < s.length(); start += GATHER_BLOCK) {
+                int end = Math.min(s.length(), start + GATHER_BLOCK);
+                if (s instanceof String) {
+                    ((String) s).getChars(start, end, block, 0);
+                } else {
+                    for (int i = start; i < end; i++) {
+                        block[i - start] = s.charAt(i);
+                    }
+                }
+                encoded += encodeGathered(block, 0, end - start, out, buffers);
+            }
+        } else {
+            for (int i = 0; i < s.length(); i++) {
+                int slot = index.indexOf(s.charAt(i));
+                if (slot >= 0) {
+                    out.write(codes[slot], lengths[slot]);
+                    encoded++;
+                }
+            }
+        }
+        if (metrics != null) {
+            metrics.recordEncode(s.length(), s.length() - encoded, out.size() - before, System.nanoTime() - started);
+        }
+        return encoded;
+    }
+
+    /**
+     * This method is responsible to encode part of a char array and append the bits to a writer.
+     * @param chars -- It represents the array holding the text
+     * @param offset -- It represents the first char to encode
+     * @param length -- It represents how many chars to encode
+     * @param out -- It represents the writer that receives the bits
+     * @return - returns the number of letters that had a code and were written
+     */
+    public int encode(char[] chars, int offset, int length, PackedBitWriter out) {
+        HuffmanMetrics metrics = HuffmanMetrics.active(); // null unless metrics were enabled
+        long started = metrics == null ? 0 : System.nanoTime();
+        long before = out.size();
+        int encoded = 0;
+        if (HuffmanVectorSupport.isEnabled()) {
+            encoded = encodeGathered(chars, offset, offset + length, out, GATHER_BUFFERS.get());
+        } else {
+            for (int i = offset; i < offset + length; i++) {
+                int slot = index.indexOf(chars[i]);
+                if (slot >= 0) {
+                    out.write(codes[slot], lengths[slot]);
+                    encoded++;
+                }
+            }
+        }
+        if (metrics != null) {
+            metrics.recordEncode(length, length - encoded, out.size() - before, System.nanoTime() - started);
+        }
+        return encoded;
+    }
+
+    /**
+     * This method is a helper method for both encode methods that looks the codes up through HuffmanVectorSupport a
+     * block at a time. Whenever the lookup stops at a char that is 256 or more or has no code, that char goes through
+     * the full index before the next block starts.
+     * @param chars -- It represents the array holding the text
+     * @param from -- It represents the first char to encode
+     * @param to -- It represents the char after the last one to encode
+     * @param out -- It represents the writer that receives the bits
+     * @param buffers -- It represents the block buffers of the calling thread
+     * @return - returns the number of letters that had a code and were written
+     */
+    private int encodeGathered(char[] chars, int from, int to, PackedBitWriter out, GatherBuffers buffers) {
+        long[] blockCodes = buffers.codes;
+        int[] blockLengths = buffers.lengths;
+        int encoded = 0;
+        int i = from;
+        while (i < to) {
+            int end = Math.min(to, i + GATHER_BLOCK);
+            int gathered = HuffmanVectorSupport.gatherCodes(chars, i, end, denseCodes, denseLengths, blockCodes, blockLengths);
+            for (int k = 0; k < gathered; k++) {
+                out.write(blockCodes[k], blockLengths[k]);
+            }
+            encoded += gathered;
+            i += gathered;
+            if (i < end) {
+                int slot = index.indexOf(chars[i]);
+                if (slot >= 0) {
+                    out.write(codes[slot], lengths[slot]);
+                    encoded++;
+                }
+                i++;
+            }
+        }
+        return encoded;
+    }
+
+    /**
+     * This method is responsible to work out how many bits a piece of text encodes to, without encoding it. Letters
+     * that are not in the codebook add nothing, the same as encode skips them.
+     * @param s -- It represents the text
+     * @return - returns the number of bits encode would write for the text
+     */
+    public long encodedBitLength(CharSequence s) {
+        return encodedBitLength(s, 0, s.length());
+    }
+
+    /**
+     * This method is responsible to work out how many bits a piece of text encodes to, splitting the text into chunks
+     * that are summed in parallel on the given pool. Short texts are summed on the calling thread.
+     * @param s -- It represents the text
+     * @param pool -- It represents the pool that runs the summing tasks
+     * @return - returns the number of bits encode would write for the text
+     */
+    public long encodedBitLength(CharSequence s, ForkJoinPool pool) {
+        int chunk = Math.max(MIN_LENGTH_CHUNK, s.length() / (pool.getParallelism() * 4) + 1);
+        if (s.length() <= chunk) {
+            return encodedBitLength(s, 0, s.length());
+        }
+        return pool.invoke(new BitLengthTask(s, 0, s.length(), chunk));
+    }
+
+    /**
+     * This method is a helper method for both encodedBitLength methods that adds up the code lengths of part of a
+     * text. Chars below 256 are looked up straight in the dense table and only the rest go through the index.
+     * @param s -- It represents the text
+     * @param from -- It represents the first char
+     * @param to -- It represents the char after the last one
+     * @return - returns the number of bits the chars encode to
+     */
+    private long encodedBitLength(CharSequence s, int from, int to) {
+        long bits = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < DENSE_SIZE) {
+                bits += denseLengths[c];
+            } else {
+                int slot = index.indexOf(c);
+                bits += slot < 0 ? 0 : lengths[slot];
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * This method is responsible to check if the encoder has a code for the given letter.
+     * @param c -- It represents the letter to check
+     * @return - returns true if the letter has a code otherwise false
+     */
+    public boolean contains(char c) {
+        return index.contains(c);
+    }
+
+    /**
+     * This method is responsible to return the bits of the code for a letter.
+     * @param c -- It represents the letter
+     * @return - returns the code, right aligned, or 0 if the letter has no code
+     */
+    public long getCode(char c) {
+        int slot = index.indexOf(c);
+        return slot < 0 ? 0L : codes[slot];
+    }
+
+    /**
+     * This method is responsible to return the length of the code for a letter.
+     * @param c -- It represents the letter
+     * @return - returns the code length in bits, or 0 if the letter has no code
+     */
+    public int getCodeLength(char c) {
+        int slot = index.indexOf(c);
+        return slot < 0 ? 0 : lengths[slot];
+    }
+
+
+
+
+    // The below code represents the block buffers of the vector lookups and the task that sums code lengths in parallel
+
+    /**
+     * This class represents the buffers one thread uses to look codes up a block at a time.
+     */
+    private static class GatherBuffers {
+        private final char[] chars = new char[GATHER_BLOCK]; // a block of a CharSequence copied out for the lookup
+        private final long[] codes = new long[GATHER_BLOCK];
+        private final int[] lengths = new int[GATHER_BLOCK];
+    }
+
+    /**
+     * This class is a task that sums the code lengths of the chars from start to end, splitting the range in half
+     * until it is at most one chunk long.
+     */
+    private class BitLengthTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final CharSequence text;
+        private final int start;
+        private final int end;
+        private final int chunk;
+
+        /**
+         * This constructor is responsible to create a task for the chars from start to end.
+         * @param text -- It represents the text
+         * @param start -- It represents the first char of the range
+         * @param end -- It represents the char after the range
+         * @param chunk -- It represents the largest range summed without splitting
+         */
+        private BitLengthTask(CharSequence text, int start, int end, int chunk) {
+            this.text = text;
+            this.start = start;
+            this.end = end;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected Long compute() {
+            if (end - start <= chunk) {
+                return encodedBitLength(text, start, end);
+            }
+            int middle = (start + end) >>> 1;
+            BitLengthTask left = new BitLengthTask(text, start, middle, chunk);
+            left.fork();
+            long right = new BitLengthTask(text, middle, end, chunk).compute();
+            return left.join() + right;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+import java.util.concurrent.ForkJoinPool;
+
+public class HuffmanEncoderTester {
+    public static void main(String[] args) {
+        /////////////////////////////////////////////////
+        // Test 1: same codebook as HuffmanCodeBookTester.testEncode
+        /////////////////////////////////////////////////
+        HuffmanCodeBook book = new HuffmanCodeBook();
+        book.addSequence('a', new BinarySequence("0000"));
+        book.addSequence(' ', new BinarySequence("0001"));
+        book.addSequence('\0', new BinarySequence("0010"));
+        book.addSequence('!', new BinarySequence("0011"));
+        book.addSequence('œ', new BinarySequence("0100"));
+        book.addSequence('A', new BinarySequence("0101"));
+        book.addSequence('e', new BinarySequence("0110"));
+        book.addSequence('l', new BinarySequence("0111"));
+        book.addSequence('p', new BinarySequence("1000"));
+        book.addSequence('?', new BinarySequence("11"));
+        book.addSequence('‽', new BinarySequence("101"));
+        HuffmanEncoder encoder = book.compile();
+        System.out.println("size: " + encoder.encode("").size());     // size: 0
+        System.out.println(encoder.encode("  a!"));                    // 0001000100000011
+        System.out.println(encoder.encode("A!p?p!le‽"));               // 010100111000111000001101110110101
+        // letters that are not in the codebook are skipped just like HuffmanCodeBook.encode
+        System.out.println(encoder.encode("a-b-a"));                   // 00000000
+        System.out.println(encoder.getCodeLength('‽'));                // 3
+        System.out.println(encoder.getCodeLength('z'));                // 0
+
+        /////////////////////////////////////////////////
+        // Test 2: long text crosses many 64 bit words
+        /////////////////////////////////////////////////
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            text.append("A!p?p!le‽ ");
+        }
+        PackedBinarySequence packed = encoder.encode(text);
+        System.out.println(packed.size());                             // 37000
+        System.out.println(packed.toString().equals(book.encode(text.toString()).toString()));   // true
+
+        /////////////////////////////////////////////////
+        // Test 3: the packed output decodes without copying back into a BinarySequence
+        /////////////////////////////////////////////////
+        HuffmanCodeBook ebook = ProvidedHuffmanCodeBook.getEbookHuffmanCodebook();
+        HuffmanCodeTree tree = new HuffmanCodeTree(ebook);
+        String original = "Once upon a midnight dreary, while I pondered, weak and weary,\n" +
+                "Over many a quaint and curious volume of forgotten lore—";
+        packed = ebook.compile().encode(original);
+        System.out.println(original.equals(tree.decode(packed)));      // true
+        System.out.println(original.equals(tree.compile().decode(packed)));   // true
+        System.out.println(packed.toBinarySequence().equals(ebook.encode(original)));   // true
+
+        /////////////////////////////////////////////////
+        // Test 4: the encoded size is known without encoding
+        /////////////////////////////////////////////////
+        System.out.println(encoder.encodedBitLength("A!p?p!le‽"));     // 33
+        System.out.println(encoder.encodedBitLength("a-b-a"));         // 8
+        System.out.println(encoder.encodedBitLength(text) + " " + encoder.encodedBitLength(text, ForkJoinPool.commonPool()));   // 37000 37000
+        StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            large.append(text);
+        }
+        System.out.println(encoder.encodedBitLength(large, new ForkJoinPool(4)) == encoder.encode(large).size());   // true
+        System.out.println(ebook.compile().encodedBitLength(original) == ebook.encode(original).size());   // true
+    }
+}
+/*
+size: 0
+0001000100000011
+010100111000111000001101110110101
+00000000
+3
+0
+37000
+true
+true
+true
+true
+33
+8
+37000 37000
+true
+true
+ */
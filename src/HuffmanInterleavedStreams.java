@@ -0,0 +1,326 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Project 3
+ * Author: Nitish Kumar Yarlagadda
+ * HuffmanInterleavedStreams class
+ */
+public class HuffmanInterleavedStreams {
+
+    /**
+     * The HuffmanInterleavedStreams class splits a text into a few equal parts and encodes every part as its own
+     * stream with the same codes. In a single stream every code has to be looked up before the next one can be
+     * found, since its length says where the next one starts. With several streams the decoder takes one letter from
+     * every stream in turn, and since those lookups do not depend on each other the CPU can work on all of them at
+     * the same time. Unlike HuffmanBlockContainer this uses a single thread.
+     *
+     * The stored layout is a header followed by the bits of all streams one after the other:
+     *     int MAGIC, int streamCount, then (long bitOffset, int letters) for every stream,
+     *     then the bits in the layout described in PackedBinarySequence.
+     */
+
+    public static final int MAGIC = 0x48554653; // "HUFS"
+    public static final int DEFAULT_STREAMS = 4;
+
+    private final PackedBinarySequence bits;
+    private final long[] offsets; // offsets[i] is the first bit of stream i, offsets[streamCount] is bits.size()
+    private final int[] letters; // letters[i] is the number of letters decoded from stream i
+    private final long textLength;
+
+    /**
+     * This constructor is responsible to create the streams from their bits and index.
+     * @param bits -- It represents the bits of every stream one after the other
+     * @param offsets -- It represents the first bit of every stream, followed by the total number of bits
+     * @param letters -- It represents the number of letters in every stream
+     */
+    private HuffmanInterleavedStreams(PackedBinarySequence bits, long[] offsets, int[] letters) {
+        this.bits = bits;
+        this.offsets = offsets;
+        this.letters = letters;
+        long total = 0;
+        for (int count : letters) {
+            total += count;
+        }
+        this.textLength = total;
+    }
+
+    /**
+     * This method is responsible to encode a text in the default number of streams with the codes of a codebook.
+     * @param text -- It represents the text that needs to be encoded
+     * @param codebook -- It represents the codebook to encode with
+     * @return - returns the encoded streams
+     */
+    public static HuffmanInterleavedStreams encode(CharSequence text, HuffmanCodeBook codebook) {
+        return encode(text, codebook.compile(), DEFAULT_STREAMS);
+    }
+
+    /**
+     * This method is responsible to encode a text in the given number of streams. Stream i holds the i-th part of the
+     * text. Letters without a code are skipped, the same as HuffmanEncoder.encode does.
+     * @param text -- It represents the text that needs to be encoded
+     * @param encoder -- It represents the compiled codes to encode with
+     * @param streams -- It represents how many streams to split the text into
+     * @return - returns the encoded streams
+     */
+    public static HuffmanInterleavedStreams encode(CharSequence text, HuffmanEncoder encoder, int streams) {
+        if (streams < 1) {
+            throw new IllegalArgumentException("streams must be positive: " + streams);
+        }
+        PackedBitWriter writer = new PackedBitWriter(encoder.encodedBitLength(text));
+        long[] offsets = new long[streams + 1];
+        int[] letters = new int[streams];
+        for (int i = 0; i < streams; i++) {
+            int start = (int) ((long) text.length() * i / streams);
+            int end = (int) ((long) text.length() * (i + 1) / streams);
+            offsets[i] = writer.size();
+            letters[i] = encoder.encode(text.subSequence(start, end), writer);
+        }
+        offsets[streams] = writer.size();
+        return new HuffmanInterleavedStreams(writer.toSequence(), offsets, letters);
+    }
+
+    /**
+     * This method is responsible to decode every stream into one string.
+     * @param decoder -- It represents the compiled tree matching the codes used for encoding
+     * @return - returns the decoded text
+     */
+    public String decode(HuffmanTableDecoder decoder) {
+        if (textLength > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("the text of " + textLength + " letters does not fit in a string");
+        }
+        char[] out = new char[(int) textLength];
+        decode(decoder, out, 0);
+        return new String(out);
+    }
+
+    /**
+     * This method is responsible to decode every stream into part of a char array, taking one letter from every
+     * stream in turn for as long as all of them have letters left, and finishing the longer ones after that.
+     * @param decoder -- It represents the compiled tree matching the codes used for encoding
+     * @param out -- It represents the array that receives the letters
+     * @param offset -- It represents where the first letter goes
+     * @return - returns the number of letters decoded
+     */
+    public int decode(HuffmanTableDecoder decoder, char[] out, int offset) {
+        HuffmanMetrics metrics = HuffmanMetrics.active(); // null unless metrics were enabled
+        long started = metrics == null ? 0 : System.nanoTime();
+        int streams = letters.length;
+        long[] position = new long[streams];
+        int[] next = new int[streams];
+        int rounds = Integer.MAX_VALUE;
+        int start = offset;
+        for (int i = 0; i < streams; i++) {
+            position[i] = offsets[i];
+            next[i] = start;
+            start += letters[i];
+            rounds = Math.min(rounds, letters[i]);
+        }
+        if (streams == 4) {
+            decodeFour(decoder, out, position, next, rounds);
+        } else {
+            for (int round = 0; round < rounds; round++) {
+                for (int i = 0; i < streams; i++) {
+                    int entry = decoder.lookup(bits.peek(position[i]));
+                    out[next[i]++] = (char) (entry >>> 8);
+                    position[i] += check(entry, position[i]);
+                }
+            }
+        }
+        for (int i = 0; i < streams; i++) {
+            for (int left = letters[i] - rounds; left > 0; left--) {
+                int entry = decoder.lookup(bits.peek(position[i]));
+                out[next[i]++] = (char) (entry >>> 8);
+                position[i] += check(entry, position[i]);
+            }
+            if (position[i] > offsets[i + 1]) {
+                throw new IllegalArgumentException("stream " + i + " needs more bits than it has");
+            }
+        }
+        if (metrics != null) {
+            metrics.recordDecode(bits.size(), textLength, System.nanoTime() - started);
+        }
+        return (int) textLength;
+    }
+
+    /**
+     * This method is responsible to run the shared rounds of the default four streams with every stream in its own
+     * local variables, which lets the JIT keep all four positions in registers.
+     * @param decoder -- It represents the compiled tree matching the codes used for encoding
+     * @param out -- It represents the array that receives the letters
+     * @param position -- It represents the next bit of every stream, updated when the rounds are done
+     * @param next -- It represents where the next letter of every stream goes, updated when the rounds are done
+     * @param rounds -- It represents how many letters to take from every stream
+     */
+    private void decodeFour(HuffmanTableDecoder decoder, char[] out, long[] position, int[] next, int rounds) {
+        long p0 = position[0];
+        long p1 = position[1];
+        long p2 = position[2];
+        long p3 = position[3];
+        int n0 = next[0];
+        int n1 = next[1];
+        int n2 = next[2];
+        int n3 = next[3];
+        for (int round = 0; round < rounds; round++) {
+            int e0 = decoder.lookup(bits.peek(p0));
+            int e1 = decoder.lookup(bits.peek(p1));
+            int e2 = decoder.lookup(bits.peek(p2));
+            int e3 = decoder.lookup(bits.peek(p3));
+            out[n0++] = (char) (e0 >>> 8);
+            out[n1++] = (char) (e1 >>> 8);
+            out[n2++] = (char) (e2 >>> 8);
+            out[n3++] = (char) (e3 >>> 8);
+            p0 += check(e0, p0);
+            p1 += check(e1, p1);
+            p2 += check(e2, p2);
+            p3 += check(e3, p3);
+        }
+        position[0] = p0;
+        position[1] = p1;
+        position[2] = p2;
+        position[3] = p3;
+        next[0] = n0;
+        next[1] = n1;
+        next[2] = n2;
+        next[3] = n3;
+    }
+
+    /**
+     * This method is responsible to return the code length of a lookup result, failing if no code matched.
+     * @param entry -- It represents the result of HuffmanTableDecoder.lookup
+     * @param position -- It represents where the code starts, for the error message
+     * @return - returns the code length in bits
+     */
+    private static int check(int entry, long position) {
+        int length = entry & 0xFF;
+        if (length == 0) {
+            throw new IllegalArgumentException("no code matches the bits at position " + position);
+        }
+        return length;
+    }
+
+    /**
+     * This method is responsible to return the number of streams.
+     * @return - returns the number of streams
+     */
+    public int getStreamCount() {
+        return letters.length;
+    }
+
+    /**
+     * This method is responsible to return the position of the first bit of a stream.
+     * @param stream -- It represents the index of the stream
+     * @return - returns the bit offset of the stream
+     */
+    public long getStreamOffset(int stream) {
+        return offsets[stream];
+    }
+
+    /**
+     * This method is responsible to return the number of letters a stream decodes to.
+     * @param stream -- It represents the index of the stream
+     * @return - returns the decoded length of the stream
+     */
+    public int getStreamLength(int stream) {
+        return letters[stream];
+    }
+
+    /**
+     * This method is responsible to return the number of letters in all streams together.
+     * @return - returns the decoded length of the text
+     */
+    public long getTextLength() {
+        return textLength;
+    }
+
+    /**
+     * This method is responsible to return the bits of every stream one after the other.
+     * @return - returns the encoded bits
+     */
+    public PackedBinarySequence getBits() {
+        return bits;
+    }
+
+    /**
+     * This method is responsible to write the header, the index and the bits to a stream.
+     * @param out -- It represents the stream that receives the bytes
+     * @throws IOException -- if the stream can't be written
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(letters.length);
+        for (int i = 0; i < letters.length; i++) {
+            data.writeLong(offsets[i]);
+            data.writeInt(letters[i]);
+        }
+        bits.writeTo(data);
+        data.flush();
+    }
+
+    /**
+     * This method is responsible to write the streams to a file.
+     * @param filename -- It represents the name of the file
+     */
+    public void writeToFile(String filename) {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(Paths.get(filename)))) {
+            writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * This method is responsible to read streams from a stream of bytes, checking that the index fits the bits.
+     * @param in -- It represents the stream holding the bytes, read until its end
+     * @return - returns the streams that were read
+     * @throws IOException -- if the stream can't be read or does not hold interleaved streams
+     */
+    public static HuffmanInterleavedStreams readFrom(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("not interleaved Huffman streams");
+        }
+        int streamCount = data.readInt();
+        if (streamCount < 1) {
+            throw new IOException("stream count " + streamCount + " is not positive");
+        }
+        long[] offsets = new long[streamCount + 1];
+        int[] letters = new int[streamCount];
+        for (int i = 0; i < streamCount; i++) {
+            offsets[i] = data.readLong();
+            letters[i] = data.readInt();
+        }
+        PackedBinarySequence bits = PackedBinarySequence.readFrom(data);
+        offsets[streamCount] = bits.size();
+        long previous = 0;
+        for (int i = 0; i <= streamCount; i++) {
+            if (offsets[i] < previous || (i < streamCount && letters[i] < 0)) {
+                throw new IOException("the index of stream " + i + " does not fit the bits");
+            }
+            previous = offsets[i];
+        }
+        return new HuffmanInterleavedStreams(bits, offsets, letters);
+    }
+
+    /**
+     * This method is responsible to read streams from a file.
+     * @param filename -- It represents the name of the file
+     * @return - returns the streams that were read
+     */
+    public static HuffmanInterleavedStreams readFromFile(String filename) {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(Paths.get(filename)))) {
+            return readFrom(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
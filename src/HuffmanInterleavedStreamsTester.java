@@ -0,0 +1,50 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+public class HuffmanInterleavedStreamsTester {
+    public static void main(String[] args) throws IOException {
+        HuffmanCodeBook book = ProvidedHuffmanCodeBook.getEbookHuffmanCodebook();
+        HuffmanTableDecoder decoder = new HuffmanCodeTree(book).compile();
+        String original = "Once upon a midnight dreary, while I pondered, weak and weary,\n" +
+                "Over many a quaint and curious volume of forgotten lore—\n" +
+                "            Only this and nothing more.\"";
+
+        /////////////////////////////////////////////////
+        // Test 1: four streams with the same codebook decode back to the text
+        /////////////////////////////////////////////////
+        HuffmanInterleavedStreams streams = HuffmanInterleavedStreams.encode(original, book);
+        System.out.println(streams.getStreamCount());                  // 4
+        System.out.println(streams.getStreamLength(0) + " " + streams.getStreamLength(3));   // 40 40
+        System.out.println(streams.getBits().size() == book.encode(original).size());   // true
+        System.out.println(streams.decode(decoder).equals(original));  // true
+
+        /////////////////////////////////////////////////
+        // Test 2: other stream counts, including more streams than letters
+        /////////////////////////////////////////////////
+        HuffmanEncoder encoder = book.compile();
+        System.out.println(HuffmanInterleavedStreams.encode(original, encoder, 3).decode(decoder).equals(original));   // true
+        System.out.println(HuffmanInterleavedStreams.encode(original, encoder, 1).decode(decoder).equals(original));   // true
+        System.out.println(HuffmanInterleavedStreams.encode("Raven", encoder, 8).decode(decoder));   // Raven
+
+        /////////////////////////////////////////////////
+        // Test 3: the streams can be stored and read back
+        /////////////////////////////////////////////////
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        streams.writeTo(bytes);
+        HuffmanInterleavedStreams read = HuffmanInterleavedStreams.readFrom(new ByteArrayInputStream(bytes.toByteArray()));
+        System.out.println(read.getStreamOffset(2) == streams.getStreamOffset(2));   // true
+        System.out.println(read.decode(decoder).equals(original));     // true
+    }
+}
+/*
+4
+40 40
+true
+true
+true
+true
+Raven
+true
+true
+ */
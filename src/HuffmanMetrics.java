@@ -0,0 +1,366 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Project 3
+ * Author: Nitish Kumar Yarlagadda
+ * HuffmanMetrics class
+ */
+public class HuffmanMetrics implements HuffmanMetricsMBean {
+
+    /**
+     * The HuffmanMetrics class collects opt-in statistics about encoding and decoding: calls, chars in and out, bits in
+     * and out, the average code length, chars dropped because the codebook had no code for them, and histograms of how
+     * long encode and decode calls take. Counters are LongAdders, so threads recording at the same time do not fight
+     * over one cache line.
+     *
+     * Metrics are off until enable is called. The encode and decode methods read the active instance once per call and
+     * skip all recording when it is null, so with metrics off the cost is one volatile read per call and nothing per
+     * letter. The numbers can be read with the getters, pushed to a Listener on every call, or watched through JMX.
+     */
+
+    public static final String OBJECT_NAME = "huffman:type=HuffmanMetrics";
+    private static final int BUCKETS = 64; // bucket b counts calls that took between 2^(b-1) and 2^b - 1 nanoseconds
+
+    private static volatile HuffmanMetrics active;
+
+    private final LongAdder encodeCalls = new LongAdder();
+    private final LongAdder charsEncoded = new LongAdder();
+    private final LongAdder bitsEncoded = new LongAdder();
+    private final LongAdder droppedChars = new LongAdder();
+    private final LongAdder decodeCalls = new LongAdder();
+    private final LongAdder bitsDecoded = new LongAdder();
+    private final LongAdder charsDecoded = new LongAdder();
+    private final LongAdder[] encodeNanos = newHistogram();
+    private final LongAdder[] decodeNanos = newHistogram();
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * This method is responsible to turn metrics on, keeping the numbers collected so far if they already were on.
+     * @return - returns the active metrics
+     */
+    public static synchronized HuffmanMetrics enable() {
+        if (active == null) {
+            active = new HuffmanMetrics();
+        }
+        return active;
+    }
+
+    /**
+     * This method is responsible to turn metrics off. Calls that already read the active instance still record to it.
+     */
+    public static synchronized void disable() {
+        active = null;
+    }
+
+    /**
+     * This method is responsible to return the metrics calls should record to.
+     * @return - returns the active metrics, or null when metrics are off
+     */
+    public static HuffmanMetrics active() {
+        return active;
+    }
+
+    /**
+     * This method is responsible to record one encode call.
+     * @param chars -- It represents the number of chars that were given to encode
+     * @param dropped -- It represents how many of them had no code and were skipped
+     * @param bits -- It represents the number of bits written
+     * @param nanos -- It represents how long the call took
+     */
+    public void recordEncode(long chars, long dropped, long bits, long nanos) {
+        encodeCalls.increment();
+        charsEncoded.add(chars);
+        droppedChars.add(dropped);
+        bitsEncoded.add(bits);
+        encodeNanos[bucket(nanos)].increment();
+        for (Listener listener : listeners) {
+            listener.encoded(chars, dropped, bits, nanos);
+        }
+    }
+
+    /**
+     * This method is responsible to record one decode call.
+     * @param bits -- It represents the number of bits that were given to decode
+     * @param chars -- It represents the number of chars decoded
+     * @param nanos -- It represents how long the call took
+     */
+    public void recordDecode(long bits, long chars, long nanos) {
+        decodeCalls.increment();
+        bitsDecoded.add(bits);
+        charsDecoded.add(chars);
+        decodeNanos[bucket(nanos)].increment();
+        for (Listener listener : listeners) {
+            listener.decoded(bits, chars, nanos);
+        }
+    }
+
+    /**
+     * This method is responsible to add a listener that is told about every call from now on. Listeners run on the
+     * thread that made the call, so they should be quick.
+     * @param listener -- It represents the listener
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * This method is responsible to remove a listener.
+     * @param listener -- It represents the listener
+     */
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * This method is responsible to set every counter back to 0.
+     */
+    @Override
+    public void reset() {
+        for (LongAdder adder : new LongAdder[]{encodeCalls, charsEncoded, bitsEncoded, droppedChars, decodeCalls, bitsDecoded, charsDecoded}) {
+            adder.reset();
+        }
+        for (int b = 0; b < BUCKETS; b++) {
+            encodeNanos[b].reset();
+            decodeNanos[b].reset();
+        }
+    }
+
+    /**
+     * This method is responsible to make the metrics visible to JMX clients such as jconsole under OBJECT_NAME.
+     * @throws JMException -- if the name is taken or the bean can't be registered
+     */
+    public void registerMBean() throws JMException {
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+    }
+
+    /**
+     * This method is responsible to remove the metrics from JMX.
+     * @throws JMException -- if they are not registered
+     */
+    public void unregisterMBean() throws JMException {
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(OBJECT_NAME));
+    }
+
+    /**
+     * This method is responsible to return the number of encode calls.
+     * @return - returns the number of calls
+     */
+    @Override
+    public long getEncodeCalls() {
+        return encodeCalls.sum();
+    }
+
+    /**
+     * This method is responsible to return the number of chars given to encode, dropped ones included.
+     * @return - returns the number of chars
+     */
+    @Override
+    public long getCharsEncoded() {
+        return charsEncoded.sum();
+    }
+
+    /**
+     * This method is responsible to return the number of bits written by encode.
+     * @return - returns the number of bits
+     */
+    @Override
+    public long getBitsEncoded() {
+        return bitsEncoded.sum();
+    }
+
+    /**
+     * This method is responsible to return the number of bytes the bits written by encode fill.
+     * @return - returns the number of bytes
+     */
+    @Override
+    public long getBytesEncoded() {
+        return (bitsEncoded.sum() + 7) / 8;
+    }
+
+    /**
+     * This method is responsible to return the number of chars that encode skipped because they had no code.
+     * @return - returns the number of dropped chars
+     */
+    @Override
+    public long getDroppedChars() {
+        return droppedChars.sum();
+    }
+
+    /**
+     * This method is responsible to return the number of decode calls.
+     * @return - returns the number of calls
+     */
+    @Override
+    public long getDecodeCalls() {
+        return decodeCalls.sum();
+    }
+
+    /**
+     * This method is responsible to return the number of bits given to decode.
+     * @return - returns the number of bits
+     */
+    @Override
+    public long getBitsDecoded() {
+        return bitsDecoded.sum();
+    }
+
+    /**
+     * This method is responsible to return the number of chars decode produced.
+     * @return - returns the number of chars
+     */
+    @Override
+    public long getCharsDecoded() {
+        return charsDecoded.sum();
+    }
+
+    /**
+     * This method is responsible to return the average number of bits written per encoded char.
+     * @return - returns the average code length, or 0 before anything was encoded
+     */
+    @Override
+    public double getAverageCodeLength() {
+        long encoded = charsEncoded.sum() - droppedChars.sum();
+        return encoded == 0 ? 0 : (double) bitsEncoded.sum() / encoded;
+    }
+
+    /**
+     * This method is responsible to return the histogram of encode call times.
+     * @return - returns the counts, where index b counts calls of 2^(b-1) up to 2^b - 1 nanoseconds
+     */
+    public long[] getEncodeTimeHistogram() {
+        return snapshot(encodeNanos);
+    }
+
+    /**
+     * This method is responsible to return the histogram of decode call times.
+     * @return - returns the counts, where index b counts calls of 2^(b-1) up to 2^b - 1 nanoseconds
+     */
+    public long[] getDecodeTimeHistogram() {
+        return snapshot(decodeNanos);
+    }
+
+    /**
+     * This method is responsible to estimate a percentile of the decode call times from the histogram.
+     * @param p -- It represents the share of calls, between 0 and 1
+     * @return - returns the upper end of the bucket holding the percentile in nanoseconds, or 0 without any calls
+     */
+    public long getDecodeTimePercentile(double p) {
+        return percentile(snapshot(decodeNanos), p);
+    }
+
+    /**
+     * This method is responsible to return the median encode call time.
+     * @return - returns the upper end of the bucket holding the median in nanoseconds
+     */
+    @Override
+    public long getEncodeTimeP50Nanos() {
+        return getEncodeTimePercentile(0.50);
+    }
+
+    /**
+     * This method is responsible to return the 99th percentile of the encode call times.
+     * @return - returns the upper end of the bucket holding the percentile in nanoseconds
+     */
+    @Override
+    public long getEncodeTimeP99Nanos() {
+        return getEncodeTimePercentile(0.99);
+    }
+
+    /**
+     * This method is responsible to return the median decode call time.
+     * @return - returns the upper end of the bucket holding the median in nanoseconds
+     */
+    @Override
+    public long getDecodeTimeP50Nanos() {
+        return getDecodeTimePercentile(0.50);
+    }
+
+    /**
+     * This method is responsible to return the 99th percentile of the decode call times.
+     * @return - returns the upper end of the bucket holding the percentile in nanoseconds
+     */
+    @Override
+    public long getDecodeTimeP99Nanos() {
+        return getDecodeTimePercentile(0.99);
+    }
+
+    /**
+     * This method is responsible to estimate a percentile of the encode call times from the histogram.
+     * @param p -- It represents the share of calls, between 0 and 1
+     * @return - returns the upper end of the bucket holding the percentile in nanoseconds, or 0 without any calls
+     */
+    public long getEncodeTimePercentile(double p) {
+        return percentile(snapshot(encodeNanos), p);
+    }
+
+    /**
+     * This method is responsible to return the histogram bucket of a duration.
+     * @param nanos -- It represents the duration
+     * @return - returns the number of significant bits of the duration
+     */
+    private static int bucket(long nanos) {
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(Math.max(nanos, 0)));
+    }
+
+    /**
+     * This method is responsible to find the bucket a percentile falls in.
+     * @param counts -- It represents the histogram
+     * @param p -- It represents the share of calls, between 0 and 1
+     * @return - returns the upper end of the bucket in nanoseconds
+     */
+    private static long percentile(long[] counts, double p) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        long wanted = (long) Math.ceil(p * total);
+        long seen = 0;
+        for (int b = 0; b < counts.length; b++) {
+            seen += counts[b];
+            if (seen >= wanted && seen > 0) {
+                return b == 0 ? 0 : (1L << Math.min(b, 62)) - 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * This method is responsible to create an empty histogram.
+     * @return - returns one adder per bucket
+     */
+    private static LongAdder[] newHistogram() {
+        LongAdder[] histogram = new LongAdder[BUCKETS];
+        for (int b = 0; b < BUCKETS; b++) {
+            histogram[b] = new LongAdder();
+        }
+        return histogram;
+    }
+
+    /**
+     * This method is responsible to read the current counts of a histogram.
+     * @param histogram -- It represents the histogram
+     * @return - returns the counts
+     */
+    private static long[] snapshot(LongAdder[] histogram) {
+        long[] counts = new long[BUCKETS];
+        for (int b = 0; b < BUCKETS; b++) {
+            counts[b] = histogram[b].sum();
+        }
+        return counts;
+    }
+
+    // The below design is an interface for code that wants every call pushed to it
+
+    /**
+     * This represents an interface for code that wants to hear about every encode and decode call.
+     */
+    public interface Listener {
+        void encoded(long chars, long dropped, long bits, long nanos); // called after every encode call
+
+        void decoded(long bits, long chars, long nanos); // called after every decode call
+    }
+}
@@ -0,0 +1,40 @@
+/**
+ * Project 3
+ * Author: Nitish Kumar Yarlagadda
+ * HuffmanMetricsMBean interface
+ */
+public interface HuffmanMetricsMBean {
+
+    /**
+     * The HuffmanMetricsMBean interface is what JMX clients such as jconsole see of HuffmanMetrics. It only holds the
+     * totals and percentiles, since JMX shows plain numbers best.
+     */
+
+    long getEncodeCalls(); // the number of encode calls
+
+    long getCharsEncoded(); // chars given to encode, dropped ones included
+
+    long getBitsEncoded(); // bits written by encode
+
+    long getBytesEncoded(); // bytes the bits written by encode fill
+
+    long getDroppedChars(); // chars encode skipped because they had no code
+
+    long getDecodeCalls(); // the number of decode calls
+
+    long getBitsDecoded(); // bits given to decode
+
+    long getCharsDecoded(); // chars decode produced
+
+    double getAverageCodeLength(); // bits written per encoded char
+
+    long getEncodeTimeP50Nanos(); // median encode call time
+
+    long getEncodeTimeP99Nanos(); // 99th percentile encode call time
+
+    long getDecodeTimeP50Nanos(); // median decode call time
+
+    long getDecodeTimeP99Nanos(); // 99th percentile decode call time
+
+    void reset(); // sets every counter back to 0
+}
@@ -0,0 +1,82 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+public class HuffmanMetricsTester {
+    public static void main(String[] args) throws JMException {
+        HuffmanCodeBook book = new HuffmanCodeBook();
+        book.addSequence('a', new BinarySequence("0"));
+        book.addSequence('b', new BinarySequence("10"));
+        book.addSequence('c', new BinarySequence("11"));
+        HuffmanCodeTree tree = new HuffmanCodeTree(book);
+
+        /////////////////////////////////////////////////
+        // Test 1: nothing is recorded while metrics are off
+        /////////////////////////////////////////////////
+        System.out.println(HuffmanMetrics.active() == null);           // true
+        book.encode("abc");
+
+        /////////////////////////////////////////////////
+        // Test 2: encode and decode calls are counted, including chars without a code
+        /////////////////////////////////////////////////
+        HuffmanMetrics metrics = HuffmanMetrics.enable();
+        BinarySequence encoded = book.encode("abcx");                  // 'x' has no code and is dropped
+        tree.decode(encoded);
+        book.compile().encode("aaaa");
+        System.out.println(metrics.getEncodeCalls());                  // 2
+        System.out.println(metrics.getCharsEncoded());                 // 8
+        System.out.println(metrics.getDroppedChars());                 // 1
+        System.out.println(metrics.getBitsEncoded());                  // 9
+        System.out.println(metrics.getAverageCodeLength());            // 1.2857142857142858
+        System.out.println(metrics.getDecodeCalls() + " " + metrics.getCharsDecoded() + " " + metrics.getBitsDecoded());   // 1 3 5
+        long[] histogram = metrics.getDecodeTimeHistogram();
+        long calls = 0;
+        for (long count : histogram) {
+            calls += count;
+        }
+        System.out.println(calls);                                     // 1
+
+        /////////////////////////////////////////////////
+        // Test 3: a listener hears about every call
+        /////////////////////////////////////////////////
+        AtomicLong heard = new AtomicLong();
+        metrics.addListener(new HuffmanMetrics.Listener() {
+            @Override
+            public void encoded(long chars, long dropped, long bits, long nanos) {
+                heard.addAndGet(bits);
+            }
+
+            @Override
+            public void decoded(long bits, long chars, long nanos) {
+                heard.addAndGet(chars);
+            }
+        });
+        tree.decode(book.encode("cab"));
+        System.out.println(heard.get());                               // 8
+
+        /////////////////////////////////////////////////
+        // Test 4: the same numbers are visible through JMX
+        /////////////////////////////////////////////////
+        metrics.registerMBean();
+        Object dropped = ManagementFactory.getPlatformMBeanServer().getAttribute(new ObjectName(HuffmanMetrics.OBJECT_NAME), "DroppedChars");
+        System.out.println(dropped);                                   // 1
+        metrics.unregisterMBean();
+        HuffmanMetrics.disable();
+        book.encode("abc");
+        System.out.println(metrics.getEncodeCalls());                  // 3
+    }
+}
+/*
+true
+2
+8
+1
+9
+1.2857142857142858
+1 3 5
+1
+8
+1
+3
+ */
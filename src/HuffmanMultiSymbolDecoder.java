@@ -0,0 +1,128 @@
+/**
+ * Project 3
+ * Author: Nitish Kumar Yarlagadda
+ * HuffmanMultiSymbolDecoder class
+ */
+public final class HuffmanMultiSymbolDecoder {
+
+    /**
+     * The HuffmanMultiSymbolDecoder class is a table decoder whose entries can hold several letters. For every pattern
+     * of the next windowBits bits, the table stores up to MAX_SYMBOLS letters whose codes fit in the pattern one after
+     * another, and the total number of bits they use. Since the most common letters of prose have the shortest codes,
+     * one lookup usually gives two or three letters.
+     *
+     * Every entry is a long, (third << 48 | second << 32 | first << 16 | letter count << 8 | bits used). Patterns
+     * whose first code is longer than the window have a count of 0 and are decoded by the single letter
+     * HuffmanTableDecoder, which also takes over at the end of the input where the window reaches past the last bit.
+     * The output is the same as HuffmanCodeTree.decode, including dropping a cut off code at the end.
+     */
+
+    public static final int DEFAULT_WINDOW_BITS = 12;
+    public static final int MAX_SYMBOLS = 3;
+
+    private final HuffmanTableDecoder single;
+    private final int windowBits;
+    private final long[] table; // every field is final and never changes, so a decoder can be shared by threads
+
+    /**
+     * This constructor is responsible to build the multi letter table on top of a decoder with the default window.
+     * @param decoder -- It represents the single letter decoder of the code
+     */
+    public HuffmanMultiSymbolDecoder(HuffmanTableDecoder decoder) {
+        this(decoder, DEFAULT_WINDOW_BITS);
+    }
+
+    /**
+     * This constructor is responsible to build the multi letter table on top of a decoder by decoding every pattern of
+     * the window once.
+     * @param decoder -- It represents the single letter decoder of the code
+     * @param windowBits -- It represents how many bits one lookup looks at, between 1 and 16
+     */
+    public HuffmanMultiSymbolDecoder(HuffmanTableDecoder decoder, int windowBits) {
+        if (windowBits < 1 || windowBits > 16) {
+            throw new IllegalArgumentException("windowBits must be between 1 and 16: " + windowBits);
+        }
+        this.single = decoder;
+        this.windowBits = windowBits;
+        this.table = new long[1 << windowBits];
+        for (int pattern = 0; pattern < table.length; pattern++) {
+            long window = (long) pattern << (64 - windowBits);
+            long entry = 0;
+            int count = 0;
+            int used = 0;
+            while (count < MAX_SYMBOLS) {
+                int found = decoder.lookup(window << used);
+                int length = found & 0xFF;
+                if (length == 0 || used + length > windowBits) {
+                    break; // the next code is unknown or does not end inside the window
+                }
+                entry |= (long) (found >>> 8) << (16 + 16 * count);
+                count++;
+                used += length;
+            }
+            table[pattern] = entry | count << 8 | used;
+        }
+    }
+
+    /**
+     * This method is responsible to return how many bits one lookup looks at.
+     * @return - returns the window width in bits
+     */
+    public int getWindowBits() {
+        return windowBits;
+    }
+
+    /**
+     * This method is responsible to decode a BinarySequence in the same way as HuffmanCodeTree.decode does.
+     * @param s -- It represents the BinarySequence that need to be decoded into a string
+     * @return - returns the decoded string
+     */
+    public String decode(BinarySequence s) {
+        return decode(PackedBinarySequence.of(s));
+    }
+
+    /**
+     * This method is responsible to decode the bits of any bit source into a string.
+     * @param bits -- It represents the bits that need to be decoded
+     * @return - returns the decoded string
+     */
+    public String decode(HuffmanTableDecoder.BitSource bits) {
+        HuffmanMetrics metrics = HuffmanMetrics.active(); // null unless metrics were enabled
+        long started = metrics == null ? 0 : System.nanoTime();
+        long size = bits.size();
+        StringBuilder outputString = new StringBuilder((int) Math.min(size / 4 + 16, Integer.MAX_VALUE - 8));
+        long position = 0;
+        while (position < size) {
+            long window = bits.peek(position);
+            long entry = table[(int) (window >>> (64 - windowBits))];
+            int used = (int) entry & 0xFF;
+            if (used > 0 && position + used <= size) {
+                int count = (int) (entry >>> 8) & 0xFF;
+                outputString.append((char) (entry >>> 16));
+                if (count > 1) {
+                    outputString.append((char) (entry >>> 32));
+                    if (count > 2) {
+                        outputString.append((char) (entry >>> 48));
+                    }
+                }
+                position += used;
+                continue;
+            }
+            // the first code is longer than the window, or the window reaches past the end, so decode one letter
+            int found = single.lookup(window);
+            int length = found & 0xFF;
+            if (length == 0) {
+                throw new IllegalArgumentException("no code matches the bits at position " + position);
+            }
+            if (position + length > size) {
+                break; // the last code is cut off, same as running out of bits in the tree
+            }
+            outputString.append((char) (found >>> 8));
+            position += length;
+        }
+        if (metrics != null) {
+            metrics.recordDecode(size, outputString.length(), System.nanoTime() - started);
+        }
+        return outputString.toString();
+    }
+}
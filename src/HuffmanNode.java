@@ -1,3 +1,8 @@
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
 /**
  * Project 3
  * Author: Nitish Kumar Yarlagadda
@@ -104,16 +109,62 @@ public class HuffmanNode {
 
     /**
      * This method is responsible to check if the current node and all its descendants nodes are valid for a huffman
-     * code tree.
+     * code tree. The tree is walked with an explicit stack instead of recursion, so deep trees from skewed letter
+     * counts can't overflow the call stack. Besides every node being valid, no node may be reached twice, and the
+     * leaves must satisfy the Kraft equality (the sum of 2^-depth over all leaves is exactly 1), meaning the codes
+     * form a complete prefix code.
      * @return - returns boolean true if the node and all its descendants are valid for a huffman code tree otherwise false
      */
     public boolean isValidTree() {
-        if (!isValidNode()) {
-            return false; // returning false to indicate that the current node is not valid
+        Set<HuffmanNode> seen = Collections.newSetFromMap(new IdentityHashMap<>()); // nodes are compared by identity to catch shared nodes and cycles
+        HuffmanNode[] stack = new HuffmanNode[16];
+        int[] depths = new int[16];
+        int[] leavesAtDepth = new int[16];
+        int maxDepth = 0;
+        int top = 0;
+        stack[top] = this;
+        depths[top++] = 0;
+        while (top > 0) {
+            HuffmanNode node = stack[--top];
+            int depth = depths[top];
+            if (!node.isValidNode() || !seen.add(node)) {
+                return false; // returning false since the node is not valid or was already reached through another path
+            }
+            if (node.isLeaf()) {
+                if (depth >= leavesAtDepth.length) {
+                    leavesAtDepth = Arrays.copyOf(leavesAtDepth, Math.max(depth + 1, 2 * leavesAtDepth.length));
+                }
+                leavesAtDepth[depth]++;
+                maxDepth = Math.max(maxDepth, depth);
+                continue;
+            }
+            if (top + 2 > stack.length) {
+                stack = Arrays.copyOf(stack, 2 * stack.length);
+                depths = Arrays.copyOf(depths, 2 * depths.length);
+            }
+            stack[top] = node.one;
+            depths[top++] = depth + 1;
+            stack[top] = node.zero;
+            depths[top++] = depth + 1;
         }
-        if (isLeaf()){
-            return true; // returning true indicating that the current node is a leaf node which means there are no more descendant to check
+        return satisfiesKraftEquality(leavesAtDepth, maxDepth);
+    }
+
+    /**
+     * This method is responsible to check that leaves at the given depths have a Kraft sum of exactly 1. The sum is
+     * worked out exactly by pairing up leaves from the deepest level upwards, since two leaves at depth d count as much
+     * as one at depth d - 1.
+     * @param leavesAtDepth -- It represents the number of leaves at each depth, which is changed by this method
+     * @param maxDepth -- It represents the deepest depth with a leaf
+     * @return - returns boolean true if the sum is exactly 1 otherwise false
+     */
+    private static boolean satisfiesKraftEquality(int[] leavesAtDepth, int maxDepth) {
+        for (int depth = maxDepth; depth > 0; depth--) {
+            if (leavesAtDepth[depth] % 2 != 0) {
+                return false; // an odd count leaves part of a 2^-depth share unpaired, so the sum can't be a whole 1
+            }
+            leavesAtDepth[depth - 1] += leavesAtDepth[depth] / 2;
         }
-        return zero.isValidTree() && one.isValidTree(); // Checking the validity of the descendant nodes using recursion
+        return leavesAtDepth[0] == 1;
     }
 }
\ No newline at end of file
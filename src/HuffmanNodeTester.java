@@ -92,6 +92,16 @@ public class HuffmanNodeTester {
         n1.setOne(n2);
         System.out.println(n1.getOne().getData());       // c
 
+        // Test Huffman Node isValidTree on a deep tree, which is checked without recursion
+        HuffmanNode deep = new HuffmanNode('a');
+        for (int i = 0; i < 200000; i++) {
+            deep = new HuffmanNode(new HuffmanNode('b'), deep);
+        }
+        System.out.println(deep.isValidTree());          // true
+
+        // Test Huffman Node isValidTree with one node reached through both children
+        n1 = new HuffmanNode('a');
+        System.out.println(new HuffmanNode(n1, n1).isValidTree());   // false
     }
 }
 
@@ -142,5 +152,7 @@ true
 false
 c
 c
+true
+false
 
  */
\ No newline at end of file
@@ -0,0 +1,207 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Project 3
+ * Author: Nitish Kumar Yarlagadda
+ * HuffmanStreamDecoder class
+ */
+public class HuffmanStreamDecoder {
+
+    /**
+     * The HuffmanStreamDecoder class decodes the layout described in PackedBinarySequence while it is being read, and
+     * hands the decoded chars to a Writer or a CharBuffer a block at a time. The bits that have been read but do not
+     * form a complete code yet are kept in a 64 bit accumulator from one block to the next. The last two bytes of the
+     * input are held back until the end is reached, since they are the final (padded) byte and the padding count, so
+     * padding zeros are never decoded as letters. Memory use is a fixed pair of buffers regardless of input size.
+     */
+
+    public static final int DEFAULT_CHUNK_BYTES = 1 << 16;
+    public static final int MAX_CODE_LENGTH = 56; // the accumulator always has room for at least 7 more bytes
+
+    private final HuffmanTableDecoder decoder;
+    private final int chunkBytes;
+
+    /**
+     * This constructor is responsible to create a streaming decoder that reads the default number of bytes at a time.
+     * @param decoder -- It represents the compiled tree to decode with
+     */
+    public HuffmanStreamDecoder(HuffmanTableDecoder decoder) {
+        this(decoder, DEFAULT_CHUNK_BYTES);
+    }
+
+    /**
+     * This constructor is responsible to create a streaming decoder that reads the given number of bytes at a time.
+     * @param decoder -- It represents the compiled tree to decode with
+     * @param chunkBytes -- It represents how many bytes are read per block, and how many chars are written per block
+     */
+    public HuffmanStreamDecoder(HuffmanTableDecoder decoder, int chunkBytes) {
+        if (chunkBytes < 1) {
+            throw new IllegalArgumentException("chunkBytes must be positive: " + chunkBytes);
+        }
+        if (decoder.getMaxCodeLength() > MAX_CODE_LENGTH) {
+            throw new IllegalArgumentException("codes longer than " + MAX_CODE_LENGTH + " bits can't be decoded as a stream, use a length limited code");
+        }
+        this.decoder = decoder;
+        this.chunkBytes = chunkBytes;
+    }
+
+    /**
+     * This method is responsible to decode a stream and write the chars to a writer. Neither one is closed.
+     * @param in -- It represents the encoded bytes
+     * @param out -- It represents the writer that receives the decoded text
+     * @return - returns the number of chars written
+     * @throws IOException -- if reading or writing fails, or the input does not end with a valid padding count
+     */
+    public long decode(InputStream in, Writer out) throws IOException {
+        long written = decode(in, (chars, count) -> out.write(chars, 0, count));
+        out.flush();
+        return written;
+    }
+
+    /**
+     * This method is responsible to decode a stream into a CharBuffer. The stream is not closed.
+     * @param in -- It represents the encoded bytes
+     * @param out -- It represents the buffer that receives the decoded text, a BufferOverflowException is thrown if it
+     *            is too small
+     * @return - returns the number of chars written
+     * @throws IOException -- if reading fails, or the input does not end with a valid padding count
+     */
+    public long decode(InputStream in, CharBuffer out) throws IOException {
+        return decode(in, (chars, count) -> out.put(chars, 0, count));
+    }
+
+    /**
+     * This method is responsible to decode a channel and write the chars to a writer. Neither one is closed.
+     * @param in -- It represents the encoded bytes
+     * @param out -- It represents the writer that receives the decoded text
+     * @return - returns the number of chars written
+     * @throws IOException -- if reading or writing fails, or the input does not end with a valid padding count
+     */
+    public long decode(ReadableByteChannel in, Writer out) throws IOException {
+        return decode(Channels.newInputStream(in), out);
+    }
+
+    /**
+     * This method is responsible to run the decoding loop for any kind of output.
+     * @param in -- It represents the encoded bytes
+     * @param sink -- It represents where every full block of decoded chars goes
+     * @return - returns the number of chars written
+     * @throws IOException -- if reading or writing fails, or the input does not end with a valid padding count
+     */
+    private long decode(InputStream in, Sink sink) throws IOException {
+        byte[] bytes = new byte[chunkBytes + 2];
+        char[] chars = new char[chunkBytes];
+        int held = 0; // bytes at the front of the buffer kept back from the previous read
+        State state = new State(chars);
+        int read;
+        while ((read = in.read(bytes, held, chunkBytes)) != -1) {
+            int total = held + read;
+            int ready = total - 2; // the last two bytes might be the final byte and the padding count
+            if (ready > 0) {
+                decodeBytes(bytes, ready, state, sink);
+                System.arraycopy(bytes, ready, bytes, 0, 2);
+                held = 2;
+            } else {
+                held = total;
+            }
+        }
+        if (held == 0) {
+            throw new IOException("the input is empty, it should at least hold the padding count");
+        }
+        int padding = bytes[held - 1] & 0xFF;
+        if (padding > 7 || (held == 1 && padding != 0)) {
+            throw new IOException("the input does not end with a valid padding count");
+        }
+        if (held == 2) {
+            state.accumulator |= (bytes[0] & 0xFFL) << (56 - state.bits); // the final byte, its padding bits are zeros
+            state.bits += 8 - padding;
+            decodeAvailable(state, sink);
+        }
+        // whatever is left is an unfinished code, which is dropped just like HuffmanCodeTree.decode drops it
+        if (state.used > 0) {
+            sink.write(chars, state.used);
+        }
+        return state.written + state.used;
+    }
+
+    /**
+     * This method is responsible to move bytes into the accumulator and decode every complete code.
+     * @param bytes -- It represents the buffer holding the bytes
+     * @param count -- It represents how many bytes at the front of the buffer are certainly full bytes of code
+     * @param state -- It represents the accumulator and output block carried between reads
+     * @param sink -- It represents where every full block of decoded chars goes
+     * @throws IOException -- if the sink fails
+     */
+    private void decodeBytes(byte[] bytes, int count, State state, Sink sink) throws IOException {
+        int next = 0;
+        while (next < count) {
+            while (state.bits <= 56 && next < count) {
+                state.accumulator |= (bytes[next++] & 0xFFL) << (56 - state.bits);
+                state.bits += 8;
+            }
+            decodeAvailable(state, sink);
+        }
+    }
+
+    /**
+     * This method is responsible to decode codes from the accumulator until the next code is not complete yet.
+     * @param state -- It represents the accumulator and output block carried between reads
+     * @param sink -- It represents where every full block of decoded chars goes
+     * @throws IOException -- if the sink fails, or the bits do not match any code
+     */
+    private void decodeAvailable(State state, Sink sink) throws IOException {
+        while (state.bits > 0) {
+            int entry = decoder.lookup(state.accumulator);
+            int length = entry & 0xFF;
+            if (length == 0 || length > state.bits) {
+                if (length == 0 && state.bits >= decoder.getMaxCodeLength()) {
+                    throw new IOException("no code matches the input after " + (state.written + state.used) + " chars");
+                }
+                return; // the code continues in bytes that have not been read yet
+            }
+            state.chars[state.used++] = (char) (entry >>> 8);
+            if (state.used == state.chars.length) {
+                sink.write(state.chars, state.used);
+                state.written += state.used;
+                state.used = 0;
+            }
+            state.accumulator <<= length;
+            state.bits -= length;
+        }
+    }
+
+
+
+    // The below code represents the decoding state and the output target shared by the helper methods
+
+    /**
+     * This class represents the bits and chars carried from one read to the next.
+     */
+    private static class State {
+        private final char[] chars; // block of decoded chars not handed to the sink yet
+        private int used;
+        private long written; // chars already handed to the sink
+        private long accumulator; // bits read but not decoded yet, left aligned
+        private int bits;
+
+        /**
+         * This constructor is responsible to create the state with an empty accumulator.
+         * @param chars -- It represents the block that collects decoded chars
+         */
+        private State(char[] chars) {
+            this.chars = chars;
+        }
+    }
+
+    /**
+     * This represents an interface for the place decoded chars are written to.
+     */
+    private interface Sink {
+        void write(char[] chars, int count) throws IOException; // receives the first count chars of the block
+    }
+}
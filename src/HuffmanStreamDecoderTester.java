@@ -0,0 +1,74 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+
+public class HuffmanStreamDecoderTester {
+    public static void main(String[] args) throws IOException {
+        String original = "Once upon a midnight dreary, while I pondered, weak and weary,\n" +
+                "Over many a quaint and curious volume of forgotten lore—\n" +
+                "            Only this and nothing more.\"";
+        StringBuilder big = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            big.append(original).append(i);
+        }
+        CanonicalHuffmanCode code = HuffmanCodeBookBuilder.buildCode(HuffmanCodeBookBuilder.countFrequencies(big));
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        code.toEncoder().encode(big).writeTo(encoded);
+        byte[] bytes = encoded.toByteArray();
+
+        /////////////////////////////////////////////////
+        // Test 1: decode to a writer, with block sizes that cut codes in every possible place
+        /////////////////////////////////////////////////
+        boolean allSame = true;
+        for (int chunk : new int[]{1, 2, 3, 7, 64, 100000}) {
+            StringWriter out = new StringWriter();
+            long written = new HuffmanStreamDecoder(code.toDecoder(), chunk).decode(new ByteArrayInputStream(bytes), out);
+            allSame &= written == big.length() && out.toString().equals(big.toString());
+        }
+        System.out.println(allSame);                                   // true
+
+        /////////////////////////////////////////////////
+        // Test 2: decode into a CharBuffer and from a channel
+        /////////////////////////////////////////////////
+        CharBuffer target = CharBuffer.allocate(big.length());
+        new HuffmanStreamDecoder(code.toDecoder(), 5).decode(new ByteArrayInputStream(bytes), target);
+        target.flip();
+        System.out.println(target.toString().equals(big.toString()));  // true
+        StringWriter fromChannel = new StringWriter();
+        new HuffmanStreamDecoder(code.toDecoder()).decode(Channels.newChannel(new ByteArrayInputStream(bytes)), fromChannel);
+        System.out.println(fromChannel.toString().equals(big.toString()));   // true
+
+        /////////////////////////////////////////////////
+        // Test 3: padding zeros are not decoded as letters
+        // 'a' is the code 0, so a padded last byte would otherwise turn into extra a's
+        /////////////////////////////////////////////////
+        HuffmanCodeBook book = new HuffmanCodeBook();
+        book.addSequence('a', new BinarySequence("0"));
+        book.addSequence('b', new BinarySequence("1"));
+        ByteArrayOutputStream small = new ByteArrayOutputStream();
+        book.compile().encode("bab").writeTo(small);
+        StringWriter out = new StringWriter();
+        new HuffmanStreamDecoder(new HuffmanCodeTree(book).compile(), 1).decode(new ByteArrayInputStream(small.toByteArray()), out);
+        System.out.println(out);                                       // bab
+
+        /////////////////////////////////////////////////
+        // Test 4: a stream without the padding count is rejected
+        /////////////////////////////////////////////////
+        try {
+            new HuffmanStreamDecoder(code.toDecoder()).decode(new ByteArrayInputStream(new byte[]{0x55, 0x40}), new StringWriter());
+            System.out.println("decoded");
+        } catch (IOException e) {
+            System.out.println("rejected");                            // rejected
+        }
+    }
+}
+/*
+true
+true
+true
+bab
+rejected
+ */
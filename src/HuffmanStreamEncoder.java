@@ -0,0 +1,94 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+
+/**
+ * Project 3
+ * Author: Nitish Kumar Yarlagadda
+ * HuffmanStreamEncoder class
+ */
+public class HuffmanStreamEncoder {
+
+    /**
+     * The HuffmanStreamEncoder class encodes text while it is being read. A fixed size block of chars is read, encoded
+     * into a PackedBitWriter, and every complete word is written out before the next block is read, so memory use does
+     * not depend on the size of the input. The output is the layout described in PackedBinarySequence, byte for byte
+     * the same as encoding the whole text with the same HuffmanEncoder and calling writeTo on the result.
+     */
+
+    public static final int DEFAULT_CHUNK_CHARS = 1 << 16;
+
+    private final HuffmanEncoder encoder;
+    private final int chunkChars;
+
+    /**
+     * This constructor is responsible to create a streaming encoder that reads the default number of chars at a time.
+     * @param encoder -- It represents the compiled codes to encode with
+     */
+    public HuffmanStreamEncoder(HuffmanEncoder encoder) {
+        this(encoder, DEFAULT_CHUNK_CHARS);
+    }
+
+    /**
+     * This constructor is responsible to create a streaming encoder that reads the given number of chars at a time.
+     * @param encoder -- It represents the compiled codes to encode with
+     * @param chunkChars -- It represents how many chars are read and encoded per block
+     */
+    public HuffmanStreamEncoder(HuffmanEncoder encoder, int chunkChars) {
+        if (chunkChars < 1) {
+            throw new IllegalArgumentException("chunkChars must be positive: " + chunkChars);
+        }
+        this.encoder = encoder;
+        this.chunkChars = chunkChars;
+    }
+
+    /**
+     * This method is responsible to encode every char of a reader to a stream. Neither one is closed.
+     * @param in -- It represents the text to encode
+     * @param out -- It represents the stream that receives the encoded bytes
+     * @return - returns the number of encoded bits, not counting padding and the final length byte
+     * @throws IOException -- if reading or writing fails
+     */
+    public long encode(Reader in, OutputStream out) throws IOException {
+        char[] chunk = new char[chunkChars];
+        PackedBitWriter writer = new PackedBitWriter((long) chunkChars * 8);
+        int read;
+        while ((read = in.read(chunk, 0, chunk.length)) != -1) {
+            encoder.encode(chunk, 0, read, writer);
+            writer.flushTo(out); // only the bits of an unfinished word stay behind for the next block
+        }
+        writer.finishTo(out);
+        out.flush();
+        return writer.size();
+    }
+
+    /**
+     * This method is responsible to encode the text in a byte stream to another stream. Neither one is closed.
+     * @param in -- It represents the bytes of the text to encode
+     * @param charset -- It represents how the text is stored in the bytes
+     * @param out -- It represents the stream that receives the encoded bytes
+     * @return - returns the number of encoded bits, not counting padding and the final length byte
+     * @throws IOException -- if reading or writing fails
+     */
+    public long encode(InputStream in, Charset charset, OutputStream out) throws IOException {
+        return encode(new InputStreamReader(in, charset), out);
+    }
+
+    /**
+     * This method is responsible to encode the text in a channel to another channel. Neither one is closed.
+     * @param in -- It represents the bytes of the text to encode
+     * @param charset -- It represents how the text is stored in the bytes
+     * @param out -- It represents the channel that receives the encoded bytes
+     * @return - returns the number of encoded bits, not counting padding and the final length byte
+     * @throws IOException -- if reading or writing fails
+     */
+    public long encode(ReadableByteChannel in, Charset charset, WritableByteChannel out) throws IOException {
+        return encode(new InputStreamReader(Channels.newInputStream(in), charset), Channels.newOutputStream(out));
+    }
+}
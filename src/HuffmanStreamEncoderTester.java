@@ -0,0 +1,66 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class HuffmanStreamEncoderTester {
+    public static void main(String[] args) throws IOException {
+        String original = "Once upon a midnight dreary, while I pondered, weak and weary,\n" +
+                "Over many a quaint and curious volume of forgotten lore—\n" +
+                "            Only this and nothing more.\"";
+        StringBuilder big = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            big.append(original).append(i);
+        }
+        CanonicalHuffmanCode code = HuffmanCodeBookBuilder.buildCode(HuffmanCodeBookBuilder.countFrequencies(big));
+        HuffmanEncoder encoder = code.toEncoder();
+
+        /////////////////////////////////////////////////
+        // Test 1: streaming gives the same bytes as encoding everything at once
+        // a small block size makes sure words and codes get split across blocks
+        /////////////////////////////////////////////////
+        ByteArrayOutputStream whole = new ByteArrayOutputStream();
+        PackedBinarySequence expected = encoder.encode(big);
+        expected.writeTo(whole);
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        long bits = new HuffmanStreamEncoder(encoder, 37).encode(new StringReader(big.toString()), streamed);
+        System.out.println(bits == expected.size());                                        // true
+        System.out.println(Arrays.equals(whole.toByteArray(), streamed.toByteArray()));    // true
+
+        /////////////////////////////////////////////////
+        // Test 2: bytes and channels in, and the result reads back and decodes
+        /////////////////////////////////////////////////
+        byte[] utf8 = big.toString().getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream fromBytes = new ByteArrayOutputStream();
+        new HuffmanStreamEncoder(encoder).encode(new ByteArrayInputStream(utf8), StandardCharsets.UTF_8, fromBytes);
+        System.out.println(Arrays.equals(whole.toByteArray(), fromBytes.toByteArray()));   // true
+        ByteArrayOutputStream fromChannel = new ByteArrayOutputStream();
+        new HuffmanStreamEncoder(encoder).encode(Channels.newChannel(new ByteArrayInputStream(utf8)), StandardCharsets.UTF_8, Channels.newChannel(fromChannel));
+        System.out.println(Arrays.equals(whole.toByteArray(), fromChannel.toByteArray())); // true
+        PackedBinarySequence back = PackedBinarySequence.readFrom(new ByteArrayInputStream(streamed.toByteArray()));
+        System.out.println(back.size() == expected.size());                                // true
+        System.out.println(big.toString().equals(code.toDecoder().decode(back)));          // true
+
+        /////////////////////////////////////////////////
+        // Test 3: empty input is just the length byte
+        /////////////////////////////////////////////////
+        ByteArrayOutputStream empty = new ByteArrayOutputStream();
+        System.out.println(new HuffmanStreamEncoder(encoder).encode(new StringReader(""), empty));   // 0
+        System.out.println(empty.size());                                                  // 1
+        System.out.println(PackedBinarySequence.readFrom(new ByteArrayInputStream(empty.toByteArray())).size());   // 0
+    }
+}
+/*
+true
+true
+true
+true
+true
+true
+0
+1
+0
+ */
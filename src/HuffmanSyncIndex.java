@@ -0,0 +1,293 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Project 3
+ * Author: Nitish Kumar Yarlagadda
+ * HuffmanSyncIndex class
+ */
+public class HuffmanSyncIndex {
+
+    /**
+     * The HuffmanSyncIndex class is a side index for an encoded stream that records checkpoints of (bit offset, letter
+     * offset) about every interval letters. Since a code always starts at a checkpoint, decoding can begin there
+     * instead of at the first bit, so reading a slice of the text only costs the slice plus at most one interval.
+     * The index is either recorded while encoding or built afterwards by one scan over the encoded bits, and it is
+     * stored in its own file next to the encoded one:
+     *     int MAGIC, int interval, int checkpoints, long textLength, then (long bitOffset, long letterOffset) pairs.
+     */
+
+    public static final int MAGIC = 0x48554649; // "HUFI"
+    public static final int DEFAULT_INTERVAL = 1 << 14;
+
+    private final int interval;
+    private final long[] bitOffsets; // bitOffsets[k] is where the code of letter letterOffsets[k] starts
+    private final long[] letterOffsets; // increasing, letterOffsets[0] is 0
+    private final long textLength;
+
+    /**
+     * This constructor is responsible to create an index from its checkpoints.
+     * @param interval -- It represents the number of letters between checkpoints it was built with
+     * @param bitOffsets -- It represents the bit offset of every checkpoint
+     * @param letterOffsets -- It represents the letter offset of every checkpoint
+     * @param textLength -- It represents the number of letters in the whole stream
+     */
+    private HuffmanSyncIndex(int interval, long[] bitOffsets, long[] letterOffsets, long textLength) {
+        this.interval = interval;
+        this.bitOffsets = bitOffsets;
+        this.letterOffsets = letterOffsets;
+        this.textLength = textLength;
+    }
+
+    /**
+     * This method is responsible to encode a text into a writer and record a checkpoint every interval chars of it.
+     * Letters without a code are skipped, so checkpoints can be closer than interval letters of the decoded text.
+     * @param text -- It represents the text that needs to be encoded
+     * @param encoder -- It represents the compiled codes to encode with
+     * @param out -- It represents the writer that receives the bits, offsets are counted from its current size
+     * @param interval -- It represents how many chars of the text go between two checkpoints
+     * @return - returns the index of the bits that were written
+     */
+    public static HuffmanSyncIndex record(CharSequence text, HuffmanEncoder encoder, PackedBitWriter out, int interval) {
+        checkInterval(interval);
+        int count = (int) (((long) text.length() + interval - 1) / interval);
+        long[] bitOffsets = new long[Math.max(count, 1)];
+        long[] letterOffsets = new long[bitOffsets.length];
+        long base = out.size();
+        int recorded = 1; // the first checkpoint is always (0, 0)
+        long letters = 0;
+        for (int k = 0; k < count; k++) {
+            if (letters > letterOffsets[recorded - 1]) { // chunks where every letter was skipped add no checkpoint
+                bitOffsets[recorded] = out.size() - base;
+                letterOffsets[recorded++] = letters;
+            }
+            int from = k * interval;
+            int to = (int) Math.min((long) from + interval, text.length());
+            letters += encoder.encode(text.subSequence(from, to), out);
+        }
+        return new HuffmanSyncIndex(interval, Arrays.copyOf(bitOffsets, recorded), Arrays.copyOf(letterOffsets, recorded), letters);
+    }
+
+    /**
+     * This method is responsible to build the index of an existing encoded stream with one scan over its bits.
+     * @param bits -- It represents the encoded bits, for example a MappedEncodedFile
+     * @param decoder -- It represents the compiled tree matching the codes used for encoding
+     * @param interval -- It represents how many letters go between two checkpoints
+     * @return - returns the index of the bits
+     */
+    public static HuffmanSyncIndex build(HuffmanTableDecoder.BitSource bits, HuffmanTableDecoder decoder, int interval) {
+        checkInterval(interval);
+        long size = bits.size();
+        long[] bitOffsets = new long[16];
+        long[] letterOffsets = new long[16];
+        int count = 0;
+        long letters = 0;
+        long position = 0;
+        while (true) {
+            if (letters % interval == 0) {
+                if (count == bitOffsets.length) {
+                    bitOffsets = Arrays.copyOf(bitOffsets, count * 2);
+                    letterOffsets = Arrays.copyOf(letterOffsets, count * 2);
+                }
+                bitOffsets[count] = position;
+                letterOffsets[count++] = letters;
+            }
+            if (position >= size) {
+                break;
+            }
+            int length = decoder.lookup(bits.peek(position)) & 0xFF;
+            if (length == 0) {
+                throw new IllegalArgumentException("no code matches the bits at position " + position);
+            }
+            if (position + length > size) {
+                break; // an unfinished code at the end is dropped, the same as decoding does
+            }
+            position += length;
+            letters++;
+        }
+        if (count > 1 && letterOffsets[count - 1] == letters) {
+            count--; // a checkpoint at the very end points at no letter
+        }
+        return new HuffmanSyncIndex(interval, Arrays.copyOf(bitOffsets, count), Arrays.copyOf(letterOffsets, count), letters);
+    }
+
+    /**
+     * This method is responsible to make sure the checkpoint interval is usable.
+     * @param interval -- It represents how many letters go between two checkpoints
+     */
+    private static void checkInterval(int interval) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("interval must be positive: " + interval);
+        }
+    }
+
+    /**
+     * This method is responsible to decode the letters from start up to end, beginning at the closest checkpoint
+     * before start instead of at the first bit.
+     * @param bits -- It represents the encoded bits this index belongs to
+     * @param decoder -- It represents the compiled tree matching the codes used for encoding
+     * @param start -- It represents the offset of the first letter of the slice
+     * @param end -- It represents the offset just after the last letter of the slice
+     * @return - returns the letters of the slice
+     */
+    public String decodeRange(HuffmanTableDecoder.BitSource bits, HuffmanTableDecoder decoder, long start, long end) {
+        if (start < 0 || start > end || end > textLength) {
+            throw new IllegalArgumentException("range " + start + " to " + end + " is not inside the " + textLength + " letters");
+        }
+        if (end - start > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("a slice of " + (end - start) + " letters does not fit in a string");
+        }
+        int checkpoint = checkpointBefore(start);
+        long position = bitOffsets[checkpoint];
+        long letter = letterOffsets[checkpoint];
+        char[] out = new char[(int) (end - start)];
+        while (letter < end) {
+            int entry = decoder.lookup(bits.peek(position));
+            int length = entry & 0xFF;
+            if (length == 0 || position + length > bits.size()) {
+                throw new IllegalArgumentException("the bits end or stop matching a code at position " + position + ", the index does not fit them");
+            }
+            if (letter >= start) {
+                out[(int) (letter - start)] = (char) (entry >>> 8);
+            }
+            position += length;
+            letter++;
+        }
+        return new String(out);
+    }
+
+    /**
+     * This method is responsible to find the last checkpoint at or before a letter with a binary search.
+     * @param letter -- It represents the offset of the letter
+     * @return - returns the index of the checkpoint
+     */
+    private int checkpointBefore(long letter) {
+        int found = Arrays.binarySearch(letterOffsets, letter);
+        return found >= 0 ? found : -found - 2;
+    }
+
+    /**
+     * This method is responsible to return the number of letters between checkpoints the index was built with.
+     * @return - returns the interval
+     */
+    public int getInterval() {
+        return interval;
+    }
+
+    /**
+     * This method is responsible to return the number of checkpoints.
+     * @return - returns the number of checkpoints
+     */
+    public int size() {
+        return bitOffsets.length;
+    }
+
+    /**
+     * This method is responsible to return where the code of a checkpoint starts.
+     * @param checkpoint -- It represents the index of the checkpoint
+     * @return - returns the bit offset of the checkpoint
+     */
+    public long getBitOffset(int checkpoint) {
+        return bitOffsets[checkpoint];
+    }
+
+    /**
+     * This method is responsible to return which letter a checkpoint starts at.
+     * @param checkpoint -- It represents the index of the checkpoint
+     * @return - returns the letter offset of the checkpoint
+     */
+    public long getLetterOffset(int checkpoint) {
+        return letterOffsets[checkpoint];
+    }
+
+    /**
+     * This method is responsible to return the number of letters in the stream.
+     * @return - returns the decoded length of the stream
+     */
+    public long getTextLength() {
+        return textLength;
+    }
+
+    /**
+     * This method is responsible to write the index to a stream.
+     * @param out -- It represents the stream that receives the bytes
+     * @throws IOException -- if the stream can't be written
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(interval);
+        data.writeInt(bitOffsets.length);
+        data.writeLong(textLength);
+        for (int k = 0; k < bitOffsets.length; k++) {
+            data.writeLong(bitOffsets[k]);
+            data.writeLong(letterOffsets[k]);
+        }
+        data.flush();
+    }
+
+    /**
+     * This method is responsible to write the index to a file.
+     * @param filename -- It represents the name of the file
+     */
+    public void writeToFile(String filename) {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(Paths.get(filename)))) {
+            writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * This method is responsible to read an index from a stream and check that its checkpoints are in order.
+     * @param in -- It represents the stream holding the bytes
+     * @return - returns the index that was read
+     * @throws IOException -- if the stream can't be read or does not hold an index
+     */
+    public static HuffmanSyncIndex readFrom(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("not a Huffman sync index");
+        }
+        int interval = data.readInt();
+        int count = data.readInt();
+        long textLength = data.readLong();
+        if (interval < 1 || count < 1) {
+            throw new IOException("the index header is not valid");
+        }
+        long[] bitOffsets = new long[count];
+        long[] letterOffsets = new long[count];
+        for (int k = 0; k < count; k++) {
+            bitOffsets[k] = data.readLong();
+            letterOffsets[k] = data.readLong();
+            boolean ordered = k == 0 ? bitOffsets[k] == 0 && letterOffsets[k] == 0
+                    : bitOffsets[k] >= bitOffsets[k - 1] && letterOffsets[k] > letterOffsets[k - 1];
+            if (!ordered || letterOffsets[k] > textLength) {
+                throw new IOException("checkpoint " + k + " is out of order");
+            }
+        }
+        return new HuffmanSyncIndex(interval, bitOffsets, letterOffsets, textLength);
+    }
+
+    /**
+     * This method is responsible to read an index from a file.
+     * @param filename -- It represents the name of the file
+     * @return - returns the index that was read
+     */
+    public static HuffmanSyncIndex readFromFile(String filename) {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(Paths.get(filename)))) {
+            return readFrom(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+public class HuffmanSyncIndexTester {
+    public static void main(String[] args) throws IOException {
+        String original = "Once upon a midnight dreary, while I pondered, weak and weary,\n" +
+                "Over many a quaint and curious volume of forgotten lore—\n" +
+                "            Only this and nothing more.\"";
+        StringBuilder big = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            big.append(original).append(i);
+        }
+        CanonicalHuffmanCode code = HuffmanCodeBookBuilder.buildCode(HuffmanCodeBookBuilder.countFrequencies(big));
+        HuffmanTableDecoder decoder = code.toDecoder();
+
+        /////////////////////////////////////////////////
+        // Test 1: record checkpoints while encoding, then read slices
+        /////////////////////////////////////////////////
+        PackedBitWriter writer = new PackedBitWriter();
+        HuffmanSyncIndex recorded = HuffmanSyncIndex.record(big, code.toEncoder(), writer, 1000);
+        PackedBinarySequence bits = writer.toSequence();
+        System.out.println(recorded.size());                           // 49
+        System.out.println(recorded.getTextLength() == big.length());  // true
+        System.out.println(recorded.decodeRange(bits, decoder, 0, 27)); // Once upon a midnight dreary
+        System.out.println(recorded.decodeRange(bits, decoder, 12345, 23456).equals(big.substring(12345, 23456)));    // true
+        System.out.println(recorded.decodeRange(bits, decoder, 48000, big.length()).equals(big.substring(48000)));   // true
+        System.out.println(recorded.decodeRange(bits, decoder, 5000, 5000).isEmpty());   // true
+
+        /////////////////////////////////////////////////
+        // Test 2: a scan over existing bits finds the same checkpoints
+        /////////////////////////////////////////////////
+        HuffmanSyncIndex scanned = HuffmanSyncIndex.build(bits, decoder, 1000);
+        boolean same = scanned.size() == recorded.size();
+        for (int k = 0; same && k < scanned.size(); k++) {
+            same = scanned.getBitOffset(k) == recorded.getBitOffset(k) && scanned.getLetterOffset(k) == recorded.getLetterOffset(k);
+        }
+        System.out.println(same);                                      // true
+
+        /////////////////////////////////////////////////
+        // Test 3: the index survives a round trip through bytes
+        /////////////////////////////////////////////////
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        scanned.writeTo(bytes);
+        HuffmanSyncIndex read = HuffmanSyncIndex.readFrom(new ByteArrayInputStream(bytes.toByteArray()));
+        System.out.println(read.decodeRange(bits, decoder, 999, 1001).equals(big.substring(999, 1001)));   // true
+
+        /////////////////////////////////////////////////
+        // Test 4: a range past the end of the text is rejected
+        /////////////////////////////////////////////////
+        try {
+            read.decodeRange(bits, decoder, 0, big.length() + 1);
+            System.out.println("decoded");
+        } catch (IllegalArgumentException e) {
+            System.out.println("rejected");                            // rejected
+        }
+    }
+}
+/*
+49
+true
+Once upon a midnight dreary
+true
+true
+true
+true
+true
+rejected
+ */
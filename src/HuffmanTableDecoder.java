@@ -0,0 +1,462 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * Project 3
+ * Author: Nitish Kumar Yarlagadda
+ * HuffmanTableDecoder class
+ */
+public class HuffmanTableDecoder {
+
+    /**
+     * The HuffmanTableDecoder class is a compiled form of a valid Huffman code tree. Instead of following one child
+     * pointer per bit it looks at the next rootBits bits at once and finds the letter and its code length in a
+     * primitive lookup table. Codes longer than rootBits continue in smaller secondary tables.
+     *
+     * Every table entry is an int. A leaf entry is (letter << 8 | code length) and is never negative. A link to a
+     * secondary table is stored as ~(offset << 5 | width) and is always negative.
+     */
+
+    public static final int DEFAULT_ROOT_BITS = 10;
+    public static final int MAX_CODE_LENGTH = 64;
+    private static final int SUB_BITS = 8;
+
+    private final int rootBits;
+    private final int maxCodeLength;
+    private final int[] table; // every field is final and never changes, so a decoder can be shared by threads
+
+    /**
+     * This constructor is responsible to compile the tree below the given root using the default root table width.
+     * @param root -- It represents the root node of a valid Huffman code tree
+     */
+    public HuffmanTableDecoder(HuffmanNode root) {
+        this(root, DEFAULT_ROOT_BITS);
+    }
+
+    /**
+     * This constructor is responsible to compile the tree below the given root into lookup tables.
+     * @param root -- It represents the root node of a valid Huffman code tree
+     * @param rootBits -- It represents how many bits the first table lookup looks at
+     */
+    public HuffmanTableDecoder(HuffmanNode root, int rootBits) {
+        this(new CodeList(root), rootBits);
+    }
+
+    /**
+     * This constructor is responsible to compile a list of prefix free codes into lookup tables without building a
+     * tree first. Code i is stored in the lowest lengths[i] bits of codes[i].
+     * @param symbols -- It represents the letter of every code
+     * @param codes -- It represents the bits of every code, right aligned
+     * @param lengths -- It represents the length of every code in bits
+     * @param rootBits -- It represents how many bits the first table lookup looks at
+     */
+    public HuffmanTableDecoder(char[] symbols, long[] codes, int[] lengths, int rootBits) {
+        this(new CodeList(symbols, codes, lengths), rootBits);
+    }
+
+    /**
+     * This constructor is responsible to build the root table and all the secondary tables for a list of codes.
+     * @param list -- It represents the codes to compile
+     * @param rootBits -- It represents how many bits the first table lookup looks at
+     */
+    private HuffmanTableDecoder(CodeList list, int rootBits) {
+        if (rootBits < 1 || rootBits > 24) {
+            throw new IllegalArgumentException("rootBits must be between 1 and 24: " + rootBits);
+        }
+        int longest = 0;
+        for (int i = 0; i < list.count; i++) {
+            if (list.lengths[i] < 1 || list.lengths[i] > MAX_CODE_LENGTH) {
+                throw new IllegalArgumentException("code length " + list.lengths[i] + " for '" + list.symbols[i] + "' is not between 1 and " + MAX_CODE_LENGTH);
+            }
+            longest = Math.max(longest, list.lengths[i]);
+        }
+        if (longest == 0) {
+            throw new IllegalArgumentException("cannot compile a code without any letters");
+        }
+        this.maxCodeLength = longest;
+        this.rootBits = Math.min(rootBits, longest); // no reason to look at more bits than the longest code has
+        int[] members = new int[list.count];
+        for (int i = 0; i < members.length; i++) {
+            members[i] = i;
+        }
+        TableBuffer building = new TableBuffer(1 << this.rootBits);
+        buildTable(building, list, members, members.length, 0, this.rootBits);
+        this.table = Arrays.copyOf(building.entries, building.used);
+    }
+
+    /**
+     * This method is responsible to fill one table of the given width for all codes that share the first consumed bits.
+     * Codes that end inside this table become leaf entries, longer codes are grouped by their next width bits and get a
+     * secondary table each.
+     * @param building -- It represents the entries of the tables built so far
+     * @param list -- It represents all the codes being compiled
+     * @param members -- It represents the indexes of the codes that belong to this table
+     * @param count -- It represents how many entries of members are in use
+     * @param consumed -- It represents how many bits have been looked at before this table
+     * @param width -- It represents how many bits this table looks at
+     * @return - returns the offset of the new table
+     */
+    private int buildTable(TableBuffer building, CodeList list, int[] members, int count, int consumed, int width) {
+        int offset = building.reserve(1 << width);
+        long[] longCodes = new long[count]; // (prefix << 32 | member) for every code that does not end in this table
+        int longCount = 0;
+        for (int m = 0; m < count; m++) {
+            int i = members[m];
+            int remaining = list.lengths[i] - consumed;
+            if (remaining <= width) {
+                int first = (int) list.bits(i, consumed, remaining) << (width - remaining);
+                int entry = list.symbols[i] << 8 | list.lengths[i];
+                // every pattern that starts with this code decodes to the same letter
+                Arrays.fill(building.entries, offset + first, offset + first + (1 << (width - remaining)), entry);
+            } else {
+                longCodes[longCount++] = list.bits(i, consumed, width) << 32 | i;
+            }
+        }
+        Arrays.sort(longCodes, 0, longCount); // bringing codes with the same prefix next to each other
+        int start = 0;
+        while (start < longCount) {
+            int prefix = (int) (longCodes[start] >>> 32);
+            int end = start;
+            int deepest = 0;
+            while (end < longCount && (int) (longCodes[end] >>> 32) == prefix) {
+                deepest = Math.max(deepest, list.lengths[(int) longCodes[end]] - consumed - width);
+                end++;
+            }
+            int[] group = new int[end - start];
+            for (int g = 0; g < group.length; g++) {
+                group[g] = (int) longCodes[start + g];
+            }
+            int subWidth = Math.min(deepest, SUB_BITS);
+            int subOffset = buildTable(building, list, group, group.length, consumed + width, subWidth);
+            building.entries[offset + prefix] = ~(subOffset << 5 | subWidth);
+            start = end;
+        }
+        return offset;
+    }
+
+    /**
+     * This method is responsible to find the code at the start of a 64 bit window.
+     * @param window -- It represents the next bits of the input, left aligned
+     * @return - returns (letter << 8 | code length), where a code length of 0 means the bits are not a known code
+     */
+    public int lookup(long window) {
+        int entry = table[(int) (window >>> (64 - rootBits))];
+        int consumed = rootBits;
+        while (entry < 0) {
+            int link = ~entry;
+            int width = link & 31;
+            entry = table[(link >>> 5) + (int) ((window << consumed) >>> (64 - width))];
+            consumed += width;
+        }
+        return entry;
+    }
+
+    /**
+     * This method is responsible to return the length of the longest code in the decoder.
+     * @return - returns the longest code length in bits
+     */
+    public int getMaxCodeLength() {
+        return maxCodeLength;
+    }
+
+    /**
+     * This method is responsible to decode a BinarySequence in the same way as HuffmanCodeTree.decode does.
+     * @param s -- It represents the BinarySequence that need to be decoded into a string
+     * @return - returns the decoded string
+     */
+    public String decode(BinarySequence s) {
+        return decode(PackedBinarySequence.of(s));
+    }
+
+    /**
+     * This method is responsible to decode packed bits into a string. Bits of an unfinished code at the end of the
+     * input are ignored, the same as HuffmanCodeTree.decode does.
+     * @param bits -- It represents the packed bits that need to be decoded
+     * @return - returns the decoded string
+     */
+    public String decode(PackedBinarySequence bits) {
+        return decode((BitSource) bits);
+    }
+
+    /**
+     * This method is responsible to decode the bits of any bit source into a string.
+     * @param bits -- It represents the bits that need to be decoded
+     * @return - returns the decoded string
+     */
+    public String decode(BitSource bits) {
+        HuffmanMetrics metrics = HuffmanMetrics.active(); // null unless metrics were enabled
+        long started = metrics == null ? 0 : System.nanoTime();
+        long size = bits.size();
+        StringBuilder outputString = new StringBuilder((int) Math.min(size / 4 + 16, Integer.MAX_VALUE - 8));
+        long position = 0;
+        while (position < size) {
+            int entry = lookup(bits.peek(position));
+            int length = entry & 0xFF;
+            if (length == 0) {
+                throw new IllegalArgumentException("no code matches the bits at position " + position);
+            }
+            if (position + length > size) {
+                break; // the last code is cut off, same as running out of bits in the tree
+            }
+            outputString.append((char) (entry >>> 8));
+            position += length;
+        }
+        if (metrics != null) {
+            metrics.recordDecode(size, outputString.length(), System.nanoTime() - started);
+        }
+        return outputString.toString();
+    }
+
+    /**
+     * This method is responsible to decode the bits of any bit source and write the text to a writer a block at a
+     * time, for inputs whose text is too large to keep in one string. The writer is not closed.
+     * @param bits -- It represents the bits that need to be decoded
+     * @param out -- It represents the writer that receives the decoded text
+     * @return - returns the number of chars written
+     * @throws IOException -- if the writer fails
+     */
+    public long decode(BitSource bits, Writer out) throws IOException {
+        HuffmanMetrics metrics = HuffmanMetrics.active(); // null unless metrics were enabled
+        long started = metrics == null ? 0 : System.nanoTime();
+        char[] block = new char[1 << 16];
+        int used = 0;
+        long written = 0;
+        long size = bits.size();
+        long position = 0;
+        while (position < size) {
+            int entry = lookup(bits.peek(position));
+            int length = entry & 0xFF;
+            if (length == 0) {
+                throw new IllegalArgumentException("no code matches the bits at position " + position);
+            }
+            if (position + length > size) {
+                break;
+            }
+            block[used++] = (char) (entry >>> 8);
+            if (used == block.length) {
+                out.write(block, 0, used);
+                written += used;
+                used = 0;
+            }
+            position += length;
+        }
+        out.write(block, 0, used);
+        out.flush();
+        if (metrics != null) {
+            metrics.recordDecode(size, written + used, System.nanoTime() - started);
+        }
+        return written + used;
+    }
+
+    /**
+     * This method is responsible to decode the codes between two bit positions into part of a char array. Since it
+     * only reads the given range, separate ranges of one source can be decoded at the same time.
+     * @param bits -- It represents the bits that need to be decoded
+     * @param from -- It represents the position of the first bit of the first code
+     * @param to -- It represents the position just after the last bit to decode, a code crossing it is not decoded
+     * @param out -- It represents the array that receives the decoded letters
+     * @param offset -- It represents where in the array the first letter goes
+     * @return - returns the number of letters decoded
+     * @throws IndexOutOfBoundsException -- if the letters do not fit in the array
+     */
+    public int decode(BitSource bits, long from, long to, char[] out, int offset) {
+        return decode(bits, from, to, out, offset, out.length);
+    }
+
+    /**
+     * This method is responsible to decode the codes between two bit positions into a bounded part of a char array,
+     * so that corrupt bits can't write past the part the caller set aside for them.
+     * @param bits -- It represents the bits that need to be decoded
+     * @param from -- It represents the position of the first bit of the first code
+     * @param to -- It represents the position just after the last bit to decode, a code crossing it is not decoded
+     * @param out -- It represents the array that receives the decoded letters
+     * @param offset -- It represents where in the array the first letter goes
+     * @param limit -- It represents the array index the letters must stay below
+     * @return - returns the number of letters decoded
+     * @throws IndexOutOfBoundsException -- if the letters do not fit between offset and limit
+     */
+    public int decode(BitSource bits, long from, long to, char[] out, int offset, int limit) {
+        if (offset < 0 || offset > limit || limit > out.length) {
+            throw new IndexOutOfBoundsException("offset " + offset + " and limit " + limit + " of " + out.length);
+        }
+        if (from < 0 || from > to || to > bits.size()) {
+            throw new IllegalArgumentException("range " + from + " to " + to + " is not inside the " + bits.size() + " bits");
+        }
+        HuffmanMetrics metrics = HuffmanMetrics.active(); // null unless metrics were enabled
+        long started = metrics == null ? 0 : System.nanoTime();
+        int next = offset;
+        long position = from;
+        while (position < to) {
+            int entry = lookup(bits.peek(position));
+            int length = entry & 0xFF;
+            if (length == 0) {
+                throw new IllegalArgumentException("no code matches the bits at position " + position);
+            }
+            if (position + length > to) {
+                break;
+            }
+            if (next == limit) {
+                throw new IndexOutOfBoundsException("the decoded letters do not fit in " + (limit - offset) + " chars");
+            }
+            out[next++] = (char) (entry >>> 8);
+            position += length;
+        }
+        if (metrics != null) {
+            metrics.recordDecode(to - from, next - offset, System.nanoTime() - started);
+        }
+        return next - offset;
+    }
+
+
+
+    // The below design is an interface for anything the decoder can read bits from
+
+    /**
+     * This represents an interface for a read-only sequence of bits that can hand out 64 bits at a time.
+     */
+    public interface BitSource {
+        long size(); // the number of bits in the source
+
+        long peek(long index); // the 64 bits starting at index, left aligned, reading zeros past the end
+    }
+
+
+
+    // The below code represents the growing array the tables are built in, kept apart so the decoder stays immutable
+
+    /**
+     * This class represents the entries of all tables while they are being built.
+     */
+    private static class TableBuffer {
+        private int[] entries;
+        private int used;
+
+        /**
+         * This constructor is responsible to create a buffer with room for the given number of entries.
+         * @param capacity -- It represents how many entries fit before the buffer grows
+         */
+        private TableBuffer(int capacity) {
+            this.entries = new int[capacity];
+        }
+
+        /**
+         * This method is responsible to reserve room for a new table at the end of the table array.
+         * @param count -- It represents how many entries the new table has
+         * @return - returns the offset of the reserved room
+         */
+        private int reserve(int count) {
+            if (used + count > entries.length) {
+                entries = Arrays.copyOf(entries, Math.max(entries.length * 2, used + count));
+            }
+            int offset = used;
+            used += count;
+            return offset;
+        }
+    }
+
+
+
+    // The below code collects the codes of a tree or of separate arrays in one shape so that one builder handles both
+
+    /**
+     * This class represents a list of codes with their letters and lengths. HuffmanCodec uses it to compile an encoder
+     * and a decoder from the same walk over a tree.
+     */
+    static class CodeList {
+        private final char[] symbols;
+        private final long[] codes;
+        private final int[] lengths;
+        private final int count;
+
+        /**
+         * This constructor is responsible to wrap codes that are already stored in arrays.
+         * @param symbols -- It represents the letter of every code
+         * @param codes -- It represents the bits of every code, right aligned
+         * @param lengths -- It represents the length of every code in bits
+         */
+        private CodeList(char[] symbols, long[] codes, int[] lengths) {
+            if (symbols.length != codes.length || codes.length != lengths.length) {
+                throw new IllegalArgumentException("symbols, codes and lengths must have the same length");
+            }
+            this.symbols = symbols;
+            this.codes = codes;
+            this.lengths = lengths;
+            this.count = symbols.length;
+        }
+
+        /**
+         * This constructor is responsible to collect the code of every leaf below the root without recursion.
+         * @param root -- It represents the root node of a valid Huffman code tree
+         */
+        CodeList(HuffmanNode root) {
+            if (root.isLeaf()) {
+                throw new IllegalArgumentException("a tree with a single leaf has no codes to decode");
+            }
+            char[] foundSymbols = new char[16];
+            long[] foundCodes = new long[16];
+            int[] foundLengths = new int[16];
+            int found = 0;
+            ArrayDeque<Object[]> stack = new ArrayDeque<>(); // (node, code, depth) still to visit
+            stack.push(new Object[]{root, 0L, 0});
+            while (!stack.isEmpty()) {
+                Object[] item = stack.pop();
+                HuffmanNode node = (HuffmanNode) item[0];
+                long code = (Long) item[1];
+                int depth = (Integer) item[2];
+                if (node == null || !node.isValidNode()) {
+                    throw new IllegalArgumentException("the tree is not a valid Huffman code tree");
+                }
+                if (node.isLeaf()) {
+                    if (found == foundSymbols.length) {
+                        foundSymbols = Arrays.copyOf(foundSymbols, found * 2);
+                        foundCodes = Arrays.copyOf(foundCodes, found * 2);
+                        foundLengths = Arrays.copyOf(foundLengths, found * 2);
+                    }
+                    foundSymbols[found] = node.getData();
+                    foundCodes[found] = code;
+                    foundLengths[found] = depth;
+                    found++;
+                } else {
+                    if (depth == MAX_CODE_LENGTH) {
+                        throw new IllegalArgumentException("codes longer than " + MAX_CODE_LENGTH + " bits are not supported");
+                    }
+                    stack.push(new Object[]{node.getOne(), code << 1 | 1, depth + 1});
+                    stack.push(new Object[]{node.getZero(), code << 1, depth + 1});
+                }
+            }
+            this.symbols = Arrays.copyOf(foundSymbols, found);
+            this.codes = Arrays.copyOf(foundCodes, found);
+            this.lengths = Arrays.copyOf(foundLengths, found);
+            this.count = found;
+        }
+
+        /**
+         * This method is responsible to compile the codes into an encoder.
+         * @return - returns the encoder
+         */
+        HuffmanEncoder toEncoder() {
+            return new HuffmanEncoder(symbols, codes, lengths);
+        }
+
+        /**
+         * This method is responsible to compile the codes into a decoder with the default root table width.
+         * @return - returns the decoder
+         */
+        HuffmanTableDecoder toDecoder() {
+            return new HuffmanTableDecoder(this, DEFAULT_ROOT_BITS);
+        }
+
+        /**
+         * This method is responsible to return some bits from the middle of a code.
+         * @param i -- It represents which code to read
+         * @param from -- It represents how many leading bits of the code to skip
+         * @param count -- It represents how many bits to return, at most 31
+         * @return - returns the requested bits, right aligned
+         */
+        private long bits(int i, int from, int count) {
+            return (codes[i] >>> (lengths[i] - from - count)) & ((1L << count) - 1);
+        }
+    }
+}
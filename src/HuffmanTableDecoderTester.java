@@ -0,0 +1,69 @@
+public class HuffmanTableDecoderTester {
+    public static void main(String[] args) {
+        /////////////////////////////////////////////////
+        // Test 1: same small tree as HuffmanCodeTreeTester
+        /////////////////////////////////////////////////
+        HuffmanCodeTree tree = new HuffmanCodeTree(new HuffmanNode(null, null));
+        tree.put(new BinarySequence("1"), 'o');
+        tree.put(new BinarySequence("011"), 'g');
+        tree.put(new BinarySequence("0100"), 'y');
+        tree.put(new BinarySequence("0101"), '!');
+        tree.put(new BinarySequence("000"), 'v');
+        tree.put(new BinarySequence("001"), 'r');
+        HuffmanTableDecoder decoder = tree.compile();
+        System.out.println(decoder.getMaxCodeLength());              // 4
+        System.out.println(decoder.decode(new BinarySequence("01100111000010001010101")));   // groovy!!
+        // the last code is cut off, so it is dropped just like HuffmanCodeTree.decode does
+        System.out.println(decoder.decode(new BinarySequence("011101")));                    // go
+
+        /////////////////////////////////////////////////
+        // Test 2: codes longer than the root table
+        // a chain tree where letter i has the code 0...01 with i zeros
+        /////////////////////////////////////////////////
+        HuffmanNode chain = new HuffmanNode('z');
+        for (int i = 29; i >= 0; i--) {
+            chain = new HuffmanNode(chain, new HuffmanNode((char) ('A' + i)));
+        }
+        tree = new HuffmanCodeTree(chain);
+        decoder = new HuffmanTableDecoder(chain, 8);
+        BinarySequence deep = new BinarySequence("1" + "01" + "00000000001" + "000000000000000000000000000001" + "000000000000000000000000000000");
+        System.out.println(decoder.getMaxCodeLength());              // 30
+        System.out.println(decoder.decode(deep));                    // ABK^z
+        System.out.println(tree.decode(deep).equals(decoder.decode(deep)));   // true
+
+        /////////////////////////////////////////////////
+        // Test 3: provided codebook, compiled and pointer decoding agree
+        /////////////////////////////////////////////////
+        HuffmanCodeBook book = ProvidedHuffmanCodeBook.getEbookHuffmanCodebook();
+        tree = new HuffmanCodeTree(book);
+        decoder = tree.compile();
+        String original = "Once upon a midnight dreary, while I pondered, weak and weary,\n" +
+                "Over many a quaint and curious volume of forgotten lore—\n" +
+                "            Only this and nothing more.\"";
+        BinarySequence encoded = book.encode(original);
+        System.out.println(original.equals(decoder.decode(encoded)));          // true
+        System.out.println(tree.decode(encoded).equals(decoder.decode(encoded)));   // true
+
+        /////////////////////////////////////////////////
+        // Test 4: invalid trees can't be compiled
+        /////////////////////////////////////////////////
+        HuffmanNode broken = new HuffmanNode(new HuffmanNode('a'), null);
+        try {
+            new HuffmanTableDecoder(broken);
+            System.out.println("compiled");
+        } catch (IllegalArgumentException e) {
+            System.out.println("rejected");                          // rejected
+        }
+    }
+}
+/*
+4
+groovy!!
+go
+30
+ABK^z
+true
+true
+true
+rejected
+ */
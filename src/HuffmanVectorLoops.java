@@ -0,0 +1,37 @@
+/**
+ * Project 3
+ * Author: Nitish Kumar Yarlagadda
+ * HuffmanVectorLoops interface
+ */
+interface HuffmanVectorLoops {
+
+    /**
+     * The HuffmanVectorLoops interface is what HuffmanVectorSupport needs from the loops that use the
+     * jdk.incubator.vector module. Those loops live in HuffmanVectorKernels under src-vector, which is compiled on its
+     * own with --add-modules jdk.incubator.vector, and are loaded by name when the module is there, so everything under
+     * src compiles and runs without the module.
+     */
+
+    /**
+     * This method is responsible to add how often every char occurs in part of an array to the counts.
+     * @param chars -- It represents the chars to count
+     * @param from -- It represents the first char to count
+     * @param to -- It represents the char after the last one to count
+     * @param counts -- It represents the counts indexed by char, 65536 of them, which are added to
+     */
+    void countFrequencies(char[] chars, int from, int to, int[] counts);
+
+    /**
+     * This method is responsible to look up the codes of the leading chars of part of an array that are below 256 and
+     * have a code. It stops at the first char that is 256 or more or has no code.
+     * @param chars -- It represents the chars to encode
+     * @param from -- It represents the first char
+     * @param to -- It represents the char after the last one
+     * @param denseCodes -- It represents the code of every char below 256, right aligned
+     * @param denseLengths -- It represents the code length of every char below 256, 0 without a code
+     * @param codes -- It represents the array that receives the codes, starting at index 0
+     * @param lengths -- It represents the array that receives the code lengths, starting at index 0
+     * @return - returns the number of chars whose codes were looked up
+     */
+    int gatherCodes(char[] chars, int from, int to, long[] denseCodes, int[] denseLengths, long[] codes, int[] lengths);
+}
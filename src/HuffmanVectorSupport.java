@@ -0,0 +1,122 @@
+/**
+ * Project 3
+ * Author: Nitish Kumar Yarlagadda
+ * HuffmanVectorSupport class
+ */
+public final class HuffmanVectorSupport {
+
+    /**
+     * The HuffmanVectorSupport class is the switch between the plain loops and the HuffmanVectorKernels loops that use
+     * the jdk.incubator.vector module, for counting chars and for looking up codes while encoding. Both give exactly
+     * the same results. HuffmanVectorKernels is compiled separately from src-vector and is only reached through the
+     * HuffmanVectorLoops interface, so nothing under src needs the module to compile.
+     *
+     * The vector loops are used when HuffmanVectorKernels was compiled, the JVM was started with --add-modules
+     * jdk.incubator.vector, the CPU has the vector shapes they need, and the system property huffman.vector is "true".
+     * setEnabled changes the choice while running. They are off by default since the gathers and scatters they rely on
+     * are not compiled to single instructions by every JDK, so whether they win depends on the JDK and the CPU and is
+     * worth measuring with HuffmanBenchmark first. Without the module every method here falls back to the plain loops
+     * and the kernel class is never loaded.
+     */
+
+    public static final String PROPERTY = "huffman.vector";
+    private static final String KERNELS = "HuffmanVectorKernels";
+
+    private static final HuffmanVectorLoops LOOPS = loadLoops(); // null when the vector loops can't run
+    private static final boolean AVAILABLE = LOOPS != null;
+    private static volatile boolean enabled = AVAILABLE && "true".equalsIgnoreCase(System.getProperty(PROPERTY));
+
+    /**
+     * This constructor is private since the class only has static methods.
+     */
+    private HuffmanVectorSupport() {
+    }
+
+    /**
+     * This method is responsible to create the vector loops once, if the vector module is loaded and the kernel class
+     * was compiled and supports this CPU.
+     * @return - returns the vector loops, or null if they can't be used
+     */
+    private static HuffmanVectorLoops loadLoops() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            return (HuffmanVectorLoops) Class.forName(KERNELS).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null; // the kernels were not compiled, or the CPU lacks a vector shape they need
+        }
+    }
+
+    /**
+     * This method is responsible to return whether the vector loops can be used in this JVM.
+     * @return - returns true if the vector module is loaded and supported otherwise false
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * This method is responsible to return whether the vector loops are being used.
+     * @return - returns true if counting and encoding use the vector loops otherwise false
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * This method is responsible to turn the vector loops on or off.
+     * @param on -- It represents true to use the vector loops, false to use the plain ones
+     */
+    public static void setEnabled(boolean on) {
+        if (on && !AVAILABLE) {
+            throw new IllegalStateException("the vector loops need src-vector to be compiled and the JVM to be started with --add-modules jdk.incubator.vector");
+        }
+        enabled = on;
+    }
+
+    /**
+     * This method is responsible to add how often every char occurs in part of an array to the counts.
+     * @param chars -- It represents the chars to count
+     * @param from -- It represents the first char to count
+     * @param to -- It represents the char after the last one to count
+     * @param counts -- It represents the counts indexed by char, 65536 of them, which are added to
+     */
+    public static void countFrequencies(char[] chars, int from, int to, int[] counts) {
+        if (enabled) {
+            LOOPS.countFrequencies(chars, from, to, counts);
+            return;
+        }
+        for (int i = from; i < to; i++) {
+            counts[chars[i]]++;
+        }
+    }
+
+    /**
+     * This method is responsible to look up the codes of the leading chars of part of an array that are below 256 and
+     * have a code. It stops at the first char that is 256 or more or has no code, which the caller looks up itself.
+     * @param chars -- It represents the chars to encode
+     * @param from -- It represents the first char
+     * @param to -- It represents the char after the last one
+     * @param denseCodes -- It represents the code of every char below 256, right aligned
+     * @param denseLengths -- It represents the code length of every char below 256, 0 without a code
+     * @param codes -- It represents the array that receives the codes, starting at index 0
+     * @param lengths -- It represents the array that receives the code lengths, starting at index 0
+     * @return - returns the number of chars whose codes were looked up
+     */
+    public static int gatherCodes(char[] chars, int from, int to, long[] denseCodes, int[] denseLengths, long[] codes, int[] lengths) {
+        if (enabled) {
+            return LOOPS.gatherCodes(chars, from, to, denseCodes, denseLengths, codes, lengths);
+        }
+        int i = from;
+        for (; i < to; i++) {
+            char c = chars[i];
+            if (c >= denseLengths.length || denseLengths[c] == 0) {
+                break;
+            }
+            codes[i - from] = denseCodes[c];
+            lengths[i - from] = denseLengths[c];
+        }
+        return i - from;
+    }
+}
@@ -0,0 +1,67 @@
+import java.util.Arrays;
+
+/**
+ * Compile src-vector and run with --add-modules jdk.incubator.vector to compare the vector loops with the plain ones.
+ * Without the module both sides use the plain loops and the comparisons are still printed.
+ */
+public class HuffmanVectorSupportTester {
+    public static void main(String[] args) {
+        String poem = "Once upon a midnight dreary, while I pondered, weak and weary,\n" +
+                "Over many a quaint and curious volume of forgotten lore—\n" +
+                "            Only this and nothing more.\"";
+        StringBuilder built = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            built.append(poem).append(i % 7 == 0 ? "Ünïcödé → ☃ " : " ");
+        }
+        String text = built.toString();
+        boolean vector = HuffmanVectorSupport.isAvailable();
+
+        /////////////////////////////////////////////////
+        // Test 1: counting gives the same table either way
+        /////////////////////////////////////////////////
+        HuffmanVectorSupport.setEnabled(false);
+        long[] plainCounts = HuffmanCodeBookBuilder.countFrequencies(text);
+        if (vector) {
+            HuffmanVectorSupport.setEnabled(true);
+        }
+        long[] vectorCounts = HuffmanCodeBookBuilder.countFrequencies(text);
+        System.out.println(Arrays.equals(plainCounts, vectorCounts));  // true
+        System.out.println(vectorCounts['e'] + " " + vectorCounts['☃']);   // 6000 72
+
+        /////////////////////////////////////////////////
+        // Test 2: encoding gives the same bits either way, with letters above 255 and letters without a code
+        /////////////////////////////////////////////////
+        HuffmanEncoder encoder = HuffmanCodeBookBuilder.buildCode(HuffmanCodeBookBuilder.countFrequencies(poem + "☃")).toEncoder();
+        HuffmanVectorSupport.setEnabled(false);
+        PackedBinarySequence plainBits = encoder.encode(text);
+        PackedBitWriter plainArray = new PackedBitWriter();
+        int plainLetters = encoder.encode(text.toCharArray(), 3, text.length() - 3, plainArray);
+        if (vector) {
+            HuffmanVectorSupport.setEnabled(true);
+        }
+        PackedBinarySequence vectorBits = encoder.encode(text);
+        PackedBitWriter vectorArray = new PackedBitWriter();
+        int vectorLetters = encoder.encode(text.toCharArray(), 3, text.length() - 3, vectorArray);
+        System.out.println(plainBits.toString().equals(vectorBits.toString()));   // true
+        System.out.println(plainLetters == vectorLetters && Arrays.equals(plainArray.toByteArray(), vectorArray.toByteArray()));   // true
+        System.out.println(text.length() - vectorLetters);            // 363
+
+        /////////////////////////////////////////////////
+        // Test 3: turning the vector loops on without the module is refused
+        /////////////////////////////////////////////////
+        try {
+            HuffmanVectorSupport.setEnabled(true);
+            System.out.println(HuffmanVectorSupport.isEnabled());      // true, when the module is loaded
+        } catch (IllegalStateException e) {
+            System.out.println(HuffmanVectorSupport.isEnabled());      // false, when it is not
+        }
+    }
+}
+/*
+true
+6000 72
+true
+true
+363
+true
+ */
@@ -0,0 +1,137 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Project 3
+ * Author: Nitish Kumar Yarlagadda
+ * MappedEncodedFile class
+ */
+public class MappedEncodedFile implements HuffmanTableDecoder.BitSource {
+
+    /**
+     * The MappedEncodedFile class gives a decoder direct access to the bits of an encoded file in the layout described
+     * in PackedBinarySequence, without reading the file into the heap. The file is mapped with FileChannel.map in
+     * segments, since a single mapping is limited to 2 GB. Every segment also maps the first bytes of the following one,
+     * so a 64 bit window can nearly always be read from a single segment with one getLong.
+     */
+
+    public static final int DEFAULT_SEGMENT_BYTES = 1 << 30;
+    private static final int OVERLAP = 16; // a window needs at most 9 bytes past its first one
+
+    private final MappedByteBuffer[] segments;
+    private final int segmentBytes;
+    private final long payloadBytes; // bytes holding bits, without the padding count at the end
+    private final long size;
+
+    /**
+     * This constructor is responsible to store the mapped segments of an opened file.
+     * @param segments -- It represents the mappings, segment i starting at byte i * segmentBytes
+     * @param segmentBytes -- It represents the distance between the starts of two segments
+     * @param payloadBytes -- It represents the number of bytes holding bits
+     * @param size -- It represents the number of bits in the file
+     */
+    private MappedEncodedFile(MappedByteBuffer[] segments, int segmentBytes, long payloadBytes, long size) {
+        this.segments = segments;
+        this.segmentBytes = segmentBytes;
+        this.payloadBytes = payloadBytes;
+        this.size = size;
+    }
+
+    /**
+     * This method is responsible to map an encoded file using the default segment size.
+     * @param file -- It represents the encoded file
+     * @return - returns the mapped file
+     */
+    public static MappedEncodedFile open(Path file) {
+        return open(file, DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * This method is responsible to map an encoded file in segments of the given size. The mappings stay valid after
+     * the channel used to create them is closed.
+     * @param file -- It represents the encoded file
+     * @param segmentBytes -- It represents how many bytes each segment starts after the previous one
+     * @return - returns the mapped file
+     */
+    public static MappedEncodedFile open(Path file, int segmentBytes) {
+        if (segmentBytes < OVERLAP || segmentBytes > Integer.MAX_VALUE - OVERLAP) {
+            throw new IllegalArgumentException("segmentBytes must be between " + OVERLAP + " and " + (Integer.MAX_VALUE - OVERLAP));
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileBytes = channel.size();
+            if (fileBytes == 0) {
+                throw new IOException(file + " is empty, it should at least hold the padding count");
+            }
+            int count = (int) Math.max(1, (fileBytes + segmentBytes - 1) / segmentBytes);
+            MappedByteBuffer[] segments = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long start = (long) i * segmentBytes;
+                long length = Math.min(fileBytes - start, (long) segmentBytes + OVERLAP);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            }
+            long payloadBytes = fileBytes - 1;
+            int padding = segments[count - 1].get((int) (payloadBytes - (long) (count - 1) * segmentBytes)) & 0xFF;
+            if (padding > 7 || (payloadBytes == 0 && padding != 0)) {
+                throw new IOException(file + " does not end with a valid padding count");
+            }
+            return new MappedEncodedFile(segments, segmentBytes, payloadBytes, payloadBytes * 8 - padding);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * This method is responsible to return the number of bits in the file.
+     * @return - returns the number of bits, not counting padding and the padding count
+     */
+    @Override
+    public long size() {
+        return size;
+    }
+
+    /**
+     * This method is responsible to return the 64 bits starting at the given position, left aligned, reading zeros
+     * past the end of the bits.
+     * @param index -- It represents the position of the first bit to return
+     * @return - returns the 64 bit window starting at index
+     */
+    @Override
+    public long peek(long index) {
+        long byteIndex = index >>> 3;
+        int shift = (int) (index & 7);
+        if (byteIndex >= payloadBytes) {
+            return 0L; // past the last segment there may be no mapping to look at
+        }
+        if (byteIndex + 9 <= payloadBytes) {
+            MappedByteBuffer segment = segments[(int) (byteIndex / segmentBytes)];
+            int local = (int) (byteIndex % segmentBytes);
+            long window = segment.getLong(local); // the overlap makes sure the 9 bytes are in this segment
+            if (shift != 0) {
+                window = window << shift | (segment.get(local + 8) & 0xFFL) >>> (8 - shift);
+            }
+            return window;
+        }
+        long window = 0; // near the end of the file, read what is left one byte at a time
+        for (int b = 0; b < 8 && byteIndex + b < payloadBytes; b++) {
+            window |= (byteAt(byteIndex + b) & 0xFFL) << (56 - 8 * b);
+        }
+        window <<= shift;
+        if (shift != 0 && byteIndex + 8 < payloadBytes) {
+            window |= (byteAt(byteIndex + 8) & 0xFFL) >>> (8 - shift);
+        }
+        return window;
+    }
+
+    /**
+     * This method is responsible to read a single byte of the file.
+     * @param position -- It represents the position of the byte in the file
+     * @return - returns the byte
+     */
+    private byte byteAt(long position) {
+        return segments[(int) (position / segmentBytes)].get((int) (position % segmentBytes));
+    }
+}
@@ -0,0 +1,64 @@
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class MappedEncodedFileTester {
+    public static void main(String[] args) throws IOException {
+        String original = "Once upon a midnight dreary, while I pondered, weak and weary,\n" +
+                "Over many a quaint and curious volume of forgotten lore—\n" +
+                "            Only this and nothing more.\"";
+        StringBuilder big = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            big.append(original).append(i);
+        }
+        CanonicalHuffmanCode code = HuffmanCodeBookBuilder.buildCode(HuffmanCodeBookBuilder.countFrequencies(big));
+        PackedBinarySequence bits = code.toEncoder().encode(big);
+        Path file = Files.createTempFile("mapped", ".huff");
+        bits.writeToFile(file.toString());
+
+        /////////////////////////////////////////////////
+        // Test 1: the mapped file has the same bits as the sequence it was written from
+        // a 16 byte segment size makes windows cross segment boundaries all the time
+        /////////////////////////////////////////////////
+        MappedEncodedFile mapped = MappedEncodedFile.open(file, 16);
+        System.out.println(mapped.size() == bits.size());              // true
+        boolean sameWindows = true;
+        for (long i = 0; i < bits.size(); i += 3) {
+            sameWindows &= mapped.peek(i) == bits.peek(i);
+        }
+        System.out.println(sameWindows);                               // true
+        System.out.println(mapped.peek(mapped.size()) + " " + mapped.peek(mapped.size() + 1000));   // 0 0
+
+        /////////////////////////////////////////////////
+        // Test 2: decode straight from the mapping, to a String and to a Writer
+        /////////////////////////////////////////////////
+        HuffmanTableDecoder decoder = code.toDecoder();
+        System.out.println(decoder.decode(mapped).equals(big.toString()));      // true
+        StringWriter out = new StringWriter();
+        long written = decoder.decode(MappedEncodedFile.open(file), out);
+        System.out.println(written == big.length() && out.toString().equals(big.toString()));   // true
+
+        /////////////////////////////////////////////////
+        // Test 3: an empty file is rejected
+        /////////////////////////////////////////////////
+        Path empty = Files.createTempFile("empty", ".huff");
+        try {
+            MappedEncodedFile.open(empty);
+            System.out.println("opened");
+        } catch (UncheckedIOException e) {
+            System.out.println("rejected");                            // rejected
+        }
+        Files.delete(file);
+        Files.delete(empty);
+    }
+}
+/*
+true
+true
+0 0
+true
+true
+rejected
+ */
@@ -0,0 +1,222 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Project 3
+ * Author: Nitish Kumar Yarlagadda
+ * PackedBinarySequence class
+ */
+public class PackedBinarySequence implements Iterable<Boolean>, HuffmanTableDecoder.BitSource {
+
+    /**
+     * The PackedBinarySequence class represents a read-only sequence of bits packed 64 to a long, most significant bit
+     * first. It is the bit source used by the compiled decoders since it can hand out many bits at once instead of one
+     * boxed Boolean at a time.
+     *
+     * Stored as bytes, the bits come first, most significant bit first, with the last byte padded with zeros. One more
+     * byte follows that holds the number of padding bits (0 to 7), so the exact bit count can be recovered. The same
+     * layout is written by PackedBitWriter.finishTo and by the streaming encoder.
+     */
+
+    private final long[] words;
+    private final long size;
+
+    /**
+     * This constructor is responsible to wrap an array of packed words as a sequence of the given number of bits. The
+     * array is not copied, so the caller should not change the bits inside the sequence afterwards. Bits of the array
+     * past size may hold anything, such as later writes of a PackedBitWriter, and are never read as part of the
+     * sequence.
+     * @param words -- It represents the packed bits, most significant bit of words[0] being the first bit
+     * @param size -- It represents the number of bits in the sequence
+     */
+    public PackedBinarySequence(long[] words, long size) {
+        if (size < 0 || size > (long) words.length * 64) {
+            throw new IllegalArgumentException("size " + size + " does not fit in " + words.length + " words");
+        }
+        this.words = words;
+        this.size = size;
+    }
+
+    /**
+     * This method is responsible to pack the bits of a BinarySequence into a new PackedBinarySequence.
+     * @param seq -- It represents the binary sequence that needs to be packed
+     * @return - returns the packed copy of the given binary sequence
+     */
+    public static PackedBinarySequence of(BinarySequence seq) {
+        long[] packed = new long[(seq.size() + 63) >>> 6];
+        long index = 0;
+        for (boolean eachBit : seq) {
+            if (eachBit) {
+                packed[(int) (index >>> 6)] |= 1L << (63 - (index & 63)); // setting the bit, zeros are already in place
+            }
+            index++;
+        }
+        return new PackedBinarySequence(packed, index);
+    }
+
+    /**
+     * This method is responsible to return the number of bits in the sequence.
+     * @return - returns the number of bits
+     */
+    @Override
+    public long size() {
+        return size;
+    }
+
+    /**
+     * This method is responsible to return a single bit of the sequence.
+     * @param index -- It represents the position of the bit
+     * @return - returns true if the bit is a 1 otherwise false
+     */
+    public boolean get(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("bit " + index + " of " + size);
+        }
+        return (words[(int) (index >>> 6)] << (index & 63)) < 0; // the wanted bit ends up as the sign bit
+    }
+
+    /**
+     * This method is responsible to return the next 64 bits starting at the given position, left aligned so that the
+     * bit at index is the most significant bit. Positions past the end of the sequence read as zero.
+     * @param index -- It represents the position of the first bit to return
+     * @return - returns the 64 bit window starting at index
+     */
+    @Override
+    public long peek(long index) {
+        int word = (int) (index >>> 6);
+        int offset = (int) (index & 63);
+        if (index >= size) {
+            return 0L;
+        }
+        long window = words[word] << offset;
+        if (offset != 0 && word + 1 < words.length) {
+            window |= words[word + 1] >>> (64 - offset); // pulling the rest of the window from the following word
+        }
+        long left = size - index;
+        return left >= 64 ? window : window & (-1L << (64 - left)); // clearing whatever the array holds past size
+    }
+
+    /**
+     * This method is responsible to return an iterator over the bits so the sequence can be used the same way as a
+     * BinarySequence.
+     * @return - returns an iterator over every bit in order
+     */
+    @Override
+    public Iterator<Boolean> iterator() {
+        return new Iterator<Boolean>() {
+            private long index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public Boolean next() {
+                if (index >= size) {
+                    throw new NoSuchElementException();
+                }
+                return get(index++);
+            }
+        };
+    }
+
+    /**
+     * This method is responsible to read bits stored in the layout described above from a stream.
+     * @param in -- It represents the stream holding the bytes, read until its end
+     * @return - returns the bits that were read
+     * @throws IOException -- if the stream can't be read or does not hold the layout
+     */
+    public static PackedBinarySequence readFrom(InputStream in) throws IOException {
+        byte[] bytes = in.readAllBytes();
+        if (bytes.length == 0 || (bytes[bytes.length - 1] & 0xFF) > 7 || (bytes.length == 1 && bytes[0] != 0)) {
+            throw new IOException("not a packed bit stream");
+        }
+        int payload = bytes.length - 1;
+        long[] packed = new long[(payload + 7) >>> 3];
+        for (int i = 0; i < payload; i++) {
+            packed[i >>> 3] |= (bytes[i] & 0xFFL) << (56 - 8 * (i & 7));
+        }
+        return new PackedBinarySequence(packed, (long) payload * 8 - bytes[payload]);
+    }
+
+    /**
+     * This method is responsible to read bits stored in the layout described above from a file.
+     * @param filename -- It represents the name of the file
+     * @return - returns the bits that were read
+     */
+    public static PackedBinarySequence readFromFile(String filename) {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(Paths.get(filename)))) {
+            return readFrom(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * This method is responsible to write the bits to a stream in the layout described above.
+     * @param out -- It represents the stream that receives the bytes
+     * @throws IOException -- if the stream can't be written
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        long bytes = (size + 7) >>> 3;
+        for (long i = 0; i < bytes; i++) {
+            int value = (int) (words[(int) (i >>> 3)] >>> (56 - 8 * (i & 7))) & 0xFF;
+            if (i == bytes - 1) {
+                value &= 0xFF << paddingBits(size); // the padding of the last byte is always written as zeros
+            }
+            out.write(value);
+        }
+        out.write(paddingBits(size));
+    }
+
+    /**
+     * This method is responsible to write the bits to a file in the layout described above.
+     * @param filename -- It represents the name of the file
+     */
+    public void writeToFile(String filename) {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(Paths.get(filename)))) {
+            writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * This method is responsible to return how many zero bits pad a sequence of the given size out to whole bytes.
+     * @param size -- It represents the number of bits
+     * @return - returns the number of padding bits, between 0 and 7
+     */
+    public static int paddingBits(long size) {
+        return (int) ((8 - (size & 7)) & 7);
+    }
+
+    /**
+     * This method is responsible to copy the bits into a BinarySequence, for code that needs one such as writeToFile.
+     * @return - returns a BinarySequence holding the same bits
+     */
+    public BinarySequence toBinarySequence() {
+        return new BinarySequence(toString());
+    }
+
+    /**
+     * This method is responsible to return the sequence as a string of 0 and 1 characters.
+     * @return - returns the bits of the sequence as text
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder((int) Math.min(size, Integer.MAX_VALUE - 8));
+        for (long i = 0; i < size; i++) {
+            text.append(get(i) ? '1' : '0');
+        }
+        return text.toString();
+    }
+}
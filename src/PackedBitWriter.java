@@ -0,0 +1,176 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Project 3
+ * Author: Nitish Kumar Yarlagadda
+ * PackedBitWriter class
+ */
+public class PackedBitWriter {
+
+    /**
+     * The PackedBitWriter class collects codes into a 64 bit accumulator and moves the accumulator into a long[] buffer
+     * every time it fills up, so writing a code costs a couple of shifts instead of one append per bit. The bits are
+     * stored most significant bit first, the same layout PackedBinarySequence reads.
+     *
+     * For streaming the complete words can be moved out to an OutputStream with flushTo, which keeps the memory use of
+     * the writer bounded. Once that has happened the written bits are no longer all in memory, so toSequence and
+     * toByteArray can't be used any more.
+     */
+
+    private long[] words;
+    private int fullWords; // number of words of the buffer that are completely written
+    private long accumulator; // bits not yet moved into the buffer, left aligned
+    private int accumulatorBits;
+    private long flushedWords; // number of words already moved out by flushTo
+    private byte[] scratch = new byte[0]; // reused by flushTo so streaming does not allocate per chunk
+
+    /**
+     * This constructor is a 0 argument constructor that is responsible to create an empty writer.
+     */
+    public PackedBitWriter() {
+        this(64 * 16);
+    }
+
+    /**
+     * This constructor is responsible to create an empty writer with room for the given number of bits, so that the
+     * buffer does not have to grow when the final size is known up front.
+     * @param capacityBits -- It represents how many bits the buffer should hold before growing
+     */
+    public PackedBitWriter(long capacityBits) {
+        long wordCount = (capacityBits + 63) >>> 6;
+        if (wordCount > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("capacity of " + capacityBits + " bits is too large");
+        }
+        this.words = new long[(int) Math.max(wordCount, 1)];
+    }
+
+    /**
+     * This method is responsible to append a code to the end of the written bits.
+     * @param bits -- It represents the code, right aligned, with every bit above length set to 0
+     * @param length -- It represents the number of bits in the code, between 0 and 64
+     */
+    public void write(long bits, int length) {
+        int free = 64 - accumulatorBits;
+        if (length < free) {
+            accumulator |= bits << (free - length); // the code fits with room to spare
+            accumulatorBits += length;
+        } else {
+            int spill = length - free;
+            accumulator |= bits >>> spill; // the leading bits of the code complete the accumulator
+            if (fullWords == words.length) {
+                words = Arrays.copyOf(words, words.length * 2);
+            }
+            words[fullWords++] = accumulator;
+            accumulator = spill == 0 ? 0L : bits << (64 - spill); // the trailing bits start the next word
+            accumulatorBits = spill;
+        }
+    }
+
+    /**
+     * This method is responsible to append every bit of a bit source, 64 bits at a time.
+     * @param bits -- It represents the bits to append
+     */
+    public void write(HuffmanTableDecoder.BitSource bits) {
+        long size = bits.size();
+        long position = 0;
+        for (; position + 64 <= size; position += 64) {
+            write(bits.peek(position), 64);
+        }
+        int rest = (int) (size - position);
+        if (rest > 0) {
+            write(bits.peek(position) >>> (64 - rest), rest);
+        }
+    }
+
+    /**
+     * This method is responsible to return the number of bits written so far.
+     * @return - returns the number of bits written
+     */
+    public long size() {
+        return (flushedWords + fullWords) * 64 + accumulatorBits;
+    }
+
+    /**
+     * This method is responsible to return the written bits as a PackedBinarySequence that shares the buffer of the
+     * writer instead of copying it. Bits written later are not part of the returned sequence.
+     * @return - returns the written bits
+     */
+    public PackedBinarySequence toSequence() {
+        checkNotFlushed();
+        if (accumulatorBits > 0) {
+            if (fullWords == words.length) {
+                words = Arrays.copyOf(words, words.length + 1);
+            }
+            words[fullWords] = accumulator; // later writes only add bits after these ones, so the sequence stays the same
+        }
+        return new PackedBinarySequence(words, size());
+    }
+
+    /**
+     * This method is responsible to return the written bits as bytes, most significant bit first, with the unused bits
+     * of the last byte set to 0.
+     * @return - returns a new array holding the written bits
+     */
+    public byte[] toByteArray() {
+        checkNotFlushed();
+        long size = size();
+        byte[] bytes = new byte[(int) ((size + 7) >>> 3)];
+        for (int i = 0; i < bytes.length; i++) {
+            int word = i >>> 3;
+            long value = word < fullWords ? words[word] : accumulator;
+            bytes[i] = (byte) (value >>> (56 - 8 * (i & 7)));
+        }
+        return bytes;
+    }
+
+    /**
+     * This method is responsible to write every complete word to the stream and drop it from the buffer. Bits that do
+     * not fill a word yet stay in the writer.
+     * @param out -- It represents the stream that receives the bytes
+     * @throws IOException -- if the stream can't be written
+     */
+    public void flushTo(OutputStream out) throws IOException {
+        if (fullWords == 0) {
+            return;
+        }
+        if (scratch.length < fullWords * 8) {
+            scratch = new byte[words.length * 8];
+        }
+        for (int w = 0; w < fullWords; w++) {
+            long word = words[w];
+            for (int b = 0; b < 8; b++) {
+                scratch[8 * w + b] = (byte) (word >>> (56 - 8 * b));
+            }
+        }
+        out.write(scratch, 0, fullWords * 8);
+        flushedWords += fullWords;
+        fullWords = 0;
+    }
+
+    /**
+     * This method is responsible to write everything that is left, in the layout described in PackedBinarySequence:
+     * the remaining bits padded with zeros to a whole byte, followed by one byte holding the number of padding bits.
+     * The writer should not be used afterwards.
+     * @param out -- It represents the stream that receives the bytes
+     * @throws IOException -- if the stream can't be written
+     */
+    public void finishTo(OutputStream out) throws IOException {
+        flushTo(out);
+        int tailBytes = (accumulatorBits + 7) >>> 3;
+        for (int b = 0; b < tailBytes; b++) {
+            out.write((int) (accumulator >>> (56 - 8 * b)) & 0xFF);
+        }
+        out.write(PackedBinarySequence.paddingBits(size()));
+    }
+
+    /**
+     * This method is responsible to make sure every written bit is still in the buffer.
+     */
+    private void checkNotFlushed() {
+        if (flushedWords > 0) {
+            throw new IllegalStateException("part of the bits were already written out by flushTo");
+        }
+    }
+}
@@ -0,0 +1,60 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+public class PackedBitWriterTester {
+    public static void main(String[] args) throws IOException {
+        PackedBitWriter writer = new PackedBitWriter(8);
+        System.out.println(writer.size());                      // 0
+        writer.write(0b101, 3);
+        writer.write(0, 0);
+        writer.write(0b0011, 4);
+        System.out.println(writer.toSequence());                // 1010011
+        PackedBinarySequence early = writer.toSequence();
+
+        // writing past the end of the first word
+        writer.write(-1L, 64);
+        writer.write(0b10, 2);
+        System.out.println(writer.size());                      // 73
+        System.out.println(early.size());                       // 7
+        System.out.println(early);                              // 1010011
+        PackedBinarySequence all = writer.toSequence();
+        System.out.println(all.get(6));                         // true
+        System.out.println(all.get(71));                        // true
+        System.out.println(all.get(72));                        // false
+
+        // bytes are most significant bit first with zero padding
+        byte[] bytes = writer.toByteArray();
+        System.out.println(bytes.length);                       // 10
+        System.out.println(bytes[0]);                           // -89
+        System.out.println(bytes[8]);                           // -1
+        System.out.println(bytes[9]);                           // 0
+
+        // bits written after toSequence stay out of the sequence even though the buffer is shared
+        PackedBitWriter shared = new PackedBitWriter();
+        shared.write(0b101, 3);
+        PackedBinarySequence head = shared.toSequence();
+        shared.write((1L << 61) - 1, 61);
+        System.out.println(Long.toHexString(head.peek(0)));     // a000000000000000
+        System.out.println(head.peek(3));                       // 0
+        ByteArrayOutputStream stored = new ByteArrayOutputStream();
+        head.writeTo(stored);
+        System.out.println(stored.toByteArray()[0]);            // -96
+    }
+}
+/*
+0
+1010011
+73
+7
+1010011
+true
+true
+false
+10
+-89
+-1
+0
+a000000000000000
+0
+-96
+ */
@@ -0,0 +1,183 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Project 3
+ * Author: Nitish Kumar Yarlagadda
+ * VersionedHuffmanCodec class
+ */
+public class VersionedHuffmanCodec {
+
+    /**
+     * The VersionedHuffmanCodec class lets a long running service switch to new codes while text keeps being encoded.
+     * Writers freeze a new codebook or tree into a HuffmanCodec and publish it under the next epoch number with one
+     * atomic swap. Readers only read the current version from an AtomicReference, so they never block, and since a
+     * version is immutable a call that started with one version finishes with it even if a newer one is published in
+     * the meantime.
+     *
+     * Every encoded output is tagged with the epoch it was encoded with, and published versions stay registered until
+     * they are retired, so a decoder always picks the codes that match the bits. The tagged stream layout is
+     *     int epoch, then the bits in the layout described in PackedBinarySequence.
+     */
+
+    private final AtomicReference<Version> current;
+    private final ConcurrentHashMap<Integer, Version> versions = new ConcurrentHashMap<>();
+
+    /**
+     * This constructor is responsible to create a holder whose first version, epoch 0, uses the given codec.
+     * @param initial -- It represents the codec of the first version
+     */
+    public VersionedHuffmanCodec(HuffmanCodec initial) {
+        Version first = new Version(0, initial);
+        versions.put(0, first);
+        current = new AtomicReference<>(first);
+    }
+
+    /**
+     * This method is responsible to freeze a codebook and publish it as the newest version.
+     * @param codebook -- It represents the codebook to switch to, it can be changed afterwards without affecting readers
+     * @return - returns the published version
+     */
+    public Version publish(HuffmanCodeBook codebook) {
+        return publish(codebook.freeze());
+    }
+
+    /**
+     * This method is responsible to publish a codec as the newest version. Concurrent writers each get their own
+     * epoch, and the one that publishes last becomes current.
+     * @param codec -- It represents the codec to switch to
+     * @return - returns the published version
+     */
+    public Version publish(HuffmanCodec codec) {
+        while (true) {
+            Version previous = current.get();
+            Version next = new Version(previous.epoch + 1, codec);
+            // registered first, so its output can be decoded as soon as it is visible
+            if (versions.putIfAbsent(next.epoch, next) != null) {
+                Thread.onSpinWait();
+                continue; // another writer claimed this epoch, try again after it
+            }
+            if (current.compareAndSet(previous, next)) {
+                return next;
+            }
+            versions.remove(next.epoch, next); // a newer version was published meanwhile
+        }
+    }
+
+    /**
+     * This method is responsible to return the version new calls should use. Callers that need several operations on
+     * the same codes should read it once and keep using it.
+     * @return - returns the current version
+     */
+    public Version current() {
+        return current.get();
+    }
+
+    /**
+     * This method is responsible to return a published version that has not been retired.
+     * @param epoch -- It represents the epoch of the version
+     * @return - returns the version
+     */
+    public Version version(int epoch) {
+        Version version = versions.get(epoch);
+        if (version == null) {
+            throw new IllegalArgumentException("no codes are registered for epoch " + epoch);
+        }
+        return version;
+    }
+
+    /**
+     * This method is responsible to forget an old version once nothing encoded with it needs decoding any more. Only
+     * versions older than the current one can be retired, since a newer epoch may be one a writer has registered and
+     * is about to make current.
+     * @param epoch -- It represents the epoch of the version
+     * @return - returns true if the version was registered and is now removed otherwise false
+     * @throws IllegalArgumentException -- if the epoch is not older than the current version
+     */
+    public boolean retire(int epoch) {
+        if (epoch >= current.get().epoch) {
+            throw new IllegalArgumentException("epoch " + epoch + " is not older than the current version");
+        }
+        return versions.remove(epoch) != null;
+    }
+
+    /**
+     * This method is responsible to encode a piece of text with the current version and write it, tagged with the
+     * epoch of that version, to a stream. The stream is not closed.
+     * @param s -- It represents the text that needs to be encoded
+     * @param out -- It represents the stream that receives the bytes
+     * @return - returns the epoch the text was encoded with
+     * @throws IOException -- if the stream can't be written
+     */
+    public int encode(CharSequence s, OutputStream out) throws IOException {
+        Version version = current.get();
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(version.epoch);
+        version.codec.encode(s).writeTo(data);
+        data.flush();
+        return version.epoch;
+    }
+
+    /**
+     * This method is responsible to read tagged bits from a stream and decode them with the version they were encoded
+     * with.
+     * @param in -- It represents the stream holding the bytes, read until its end
+     * @return - returns the decoded string
+     * @throws IOException -- if the stream can't be read or does not hold tagged bits
+     */
+    public String decode(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        int epoch = data.readInt();
+        Version version = versions.get(epoch);
+        if (version == null) {
+            throw new IOException("the input was encoded with epoch " + epoch + " which is not registered");
+        }
+        return version.codec.decode(PackedBinarySequence.readFrom(data));
+    }
+
+
+
+    // The below code represents a published version of the codes
+
+    /**
+     * This class represents an immutable pair of an epoch number and the codec published under it.
+     */
+    public static final class Version {
+        private final int epoch;
+        private final HuffmanCodec codec;
+
+        /**
+         * This constructor is responsible to tag a codec with its epoch.
+         * @param epoch -- It represents the number of the version
+         * @param codec -- It represents the codes of the version
+         */
+        private Version(int epoch, HuffmanCodec codec) {
+            if (codec == null) {
+                throw new IllegalArgumentException("a version needs a codec");
+            }
+            this.epoch = epoch;
+            this.codec = codec;
+        }
+
+        /**
+         * This method is responsible to return the epoch number of the version.
+         * @return - returns the epoch
+         */
+        public int getEpoch() {
+            return epoch;
+        }
+
+        /**
+         * This method is responsible to return the codec of the version.
+         * @return - returns the codec
+         */
+        public HuffmanCodec getCodec() {
+            return codec;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class VersionedHuffmanCodecTester {
+    public static void main(String[] args) throws IOException, InterruptedException {
+        HuffmanCodeBook first = new HuffmanCodeBook();
+        first.addSequence('a', new BinarySequence("0"));
+        first.addSequence('b', new BinarySequence("1"));
+        HuffmanCodeBook second = new HuffmanCodeBook();
+        second.addSequence('a', new BinarySequence("1"));
+        second.addSequence('b', new BinarySequence("0"));
+
+        /////////////////////////////////////////////////
+        // Test 1: output is tagged with its epoch and decoded with the matching codes
+        /////////////////////////////////////////////////
+        VersionedHuffmanCodec holder = new VersionedHuffmanCodec(first.freeze());
+        ByteArrayOutputStream old = new ByteArrayOutputStream();
+        System.out.println(holder.encode("aab", old));                 // 0
+        System.out.println(holder.publish(second).getEpoch());         // 1
+        ByteArrayOutputStream fresh = new ByteArrayOutputStream();
+        System.out.println(holder.encode("aab", fresh));               // 1
+        System.out.println(holder.current().getCodec().encode("aab")); // 110
+        System.out.println(holder.decode(new ByteArrayInputStream(old.toByteArray())));     // aab
+        System.out.println(holder.decode(new ByteArrayInputStream(fresh.toByteArray())));   // aab
+
+        /////////////////////////////////////////////////
+        // Test 2: a retired epoch can no longer be decoded
+        /////////////////////////////////////////////////
+        System.out.println(holder.retire(0));                          // true
+        try {
+            holder.decode(new ByteArrayInputStream(old.toByteArray()));
+            System.out.println("decoded");
+        } catch (IOException e) {
+            System.out.println("rejected");                            // rejected
+        }
+        try {
+            holder.retire(holder.current().getEpoch() + 1); // may be a version a writer is about to publish
+            System.out.println("retired");
+        } catch (IllegalArgumentException e) {
+            System.out.println("refused");                             // refused
+        }
+
+        /////////////////////////////////////////////////
+        // Test 3: readers keep working while writers publish new versions
+        /////////////////////////////////////////////////
+        ExecutorService pool = Executors.newFixedThreadPool(6);
+        AtomicBoolean allSame = new AtomicBoolean(true);
+        for (int reader = 0; reader < 4; reader++) {
+            pool.submit(() -> {
+                for (int round = 0; round < 20000; round++) {
+                    VersionedHuffmanCodec.Version version = holder.current();
+                    HuffmanCodec codec = version.getCodec();
+                    if (!codec.decode(codec.encode("abba")).equals("abba")) {
+                        allSame.set(false);
+                    }
+                }
+            });
+        }
+        for (int writer = 0; writer < 2; writer++) {
+            pool.submit(() -> {
+                for (int round = 0; round < 500; round++) {
+                    holder.publish(round % 2 == 0 ? first : second);
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+        System.out.println(allSame.get());                             // true
+        System.out.println(holder.current().getEpoch());               // 1001
+    }
+}
+/*
+0
+1
+1
+110
+aab
+aab
+true
+rejected
+refused
+true
+1001
+ */